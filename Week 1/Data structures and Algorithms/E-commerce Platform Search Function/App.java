@@ -1,5 +1,8 @@
 import java.lang.reflect.Array;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Map;
 
 public class App {
     public static void main(String[] args) throws Exception {
@@ -29,6 +32,80 @@ public class App {
             System.out.println("Binary Search: Product with name " + searchName + " not found.");
         }
 
+        // Indexed Search (name index built once, no sort per lookup)
+        ProductCatalog catalog = new ProductCatalog(products);
+        Product indexed = catalog.findByName("smartwatch");
+        if (indexed != null) {
+            System.out.println("Indexed Search: Product found with ID " + indexed.id + " and name " + indexed.name);
+        } else {
+            System.out.println("Indexed Search: Product with name smartwatch not found.");
+        }
+        System.out.print("Indexed Range Search [S, T):");
+        for (Product product : catalog.findByNameRange("S", "T")) {
+            System.out.print(" " + product.name);
+        }
+        System.out.println();
+
+        Product byId = catalog.findById(searchId);
+        if (byId != null) {
+            System.out.println("Indexed ID Search: Product found with ID " + searchId + " and name " + byId.name);
+        } else {
+            System.out.println("Indexed ID Search: Product with ID " + searchId + " not found.");
+        }
+
+        System.out.print("Autocomplete \"Smart\":");
+        for (Product product : catalog.autocomplete("Smart", 10)) {
+            System.out.print(" " + product.name);
+        }
+        System.out.println();
+
+        System.out.print("Full-text Search \"home machine\":");
+        for (Product product : catalog.search("home machine", true)) {
+            System.out.print(" " + product.name);
+        }
+        System.out.println();
+
+        System.out.println("Facet Counts \"laptop refrigerator\": " + catalog.facetCounts("laptop refrigerator", false));
+        System.out.println("Facet Counts \"electronics home\": " + catalog.facetCounts("electronics home", false));
+
+        // Columnar Search (off-heap columns, no Product objects per row)
+        ColumnarProductStore columns = ColumnarProductStore.of(products);
+        int columnRow = columns.binarySearch("SMARTWATCH");
+        System.out.println("Columnar Binary Search: Product found at row " + columnRow + " with ID " + columns.id(columnRow));
+        System.out.println("Columnar Linear Search: Product with ID " + searchId + " found at row " + columns.linearSearch(searchId));
+        System.out.println("Columnar Category Scan \"Home Appliances\": " + columns.rowsInCategory("Home Appliances").length + " products");
+
+        // Memory-mapped Catalog File (built from CSV, no parse step on open)
+        Path csv = Files.createTempFile("products", ".csv");
+        Path catalogFile = Files.createTempFile("products", ".pcat");
+        StringBuilder csvText = new StringBuilder("id,category,name\n");
+        for (Product product : products) {
+            csvText.append(product.id).append(',').append(product.category).append(',').append(product.name).append('\n');
+        }
+        Files.writeString(csv, csvText);
+        MappedCatalogWriter.fromCsv(csv, catalogFile);
+        MappedCatalog mapped = MappedCatalog.open(catalogFile);
+        System.out.println("Mapped Catalog: " + mapped.size() + " products, ID " + searchId + " is "
+                + mapped.name(mapped.findById(searchId)) + ", Smartwatch has ID " + mapped.id(mapped.binarySearch("Smartwatch")));
+        Files.delete(csv);
+        Files.delete(catalogFile);
+
+        System.out.print("Fuzzy Search \"Smartwach\" (distance 2):");
+        for (Product product : catalog.fuzzySearch("Smartwach", 2)) {
+            System.out.print(" " + product.name);
+        }
+        System.out.println();
+
+        System.out.print("Ranked Search \"electronics smartphone\" (top 2):");
+        for (Product product : catalog.rankedSearch("electronics smartphone", 2, Map.of("Electronics", 0.5))) {
+            System.out.print(" " + product.name);
+        }
+        System.out.println();
+
+        // Parallel Scan (predicates no index covers)
+        System.out.println("Parallel Scan \"watch\" in name: " + ParallelProductScan.findAll(products, p -> p.name.contains("watch")).size()
+                + " match, first is " + ParallelProductScan.findFirst(products, p -> p.name.contains("ing")).map(p -> p.name).orElse("none"));
+
         // Display all products
         System.out.println("All Products:");
         for (Product product : products) {
@@ -39,7 +116,7 @@ public class App {
     public static int linearSearch(ArrayList<Product> products, String id) {
 
         for (int i = 0; i < products.size(); i++) {
-            if (products.get(i).id == id)
+            if (products.get(i).id.equals(id))
                 return i;
         }
 
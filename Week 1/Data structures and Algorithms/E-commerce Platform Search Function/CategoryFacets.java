@@ -0,0 +1,80 @@
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-category membership bitsets over product ordinals. Facet counts for a
+ * result set are the cardinalities of its intersection with each category, and
+ * filtering by category is a single bitwise AND.
+ */
+public class CategoryFacets {
+    private final HashMap<String, BitSet> categories = new HashMap<>();
+
+    /**
+     * @param category The product category
+     * @param ordinal  The product ordinal
+     */
+    public void add(String category, int ordinal) {
+        categories.computeIfAbsent(category, k -> new BitSet()).set(ordinal);
+    }
+
+    /**
+     * @param category The product category
+     * @param ordinal  The product ordinal
+     */
+    public void remove(String category, int ordinal) {
+        BitSet members = categories.get(category);
+        if (members != null) {
+            members.clear(ordinal);
+            if (members.isEmpty()) {
+                categories.remove(category);
+            }
+        }
+    }
+
+    /**
+     * Counts how many of the matching products fall into each category
+     *
+     * @param matches Ordinals of the products in a result set
+     * @return Count per category, sorted by category name; categories without
+     *         matches are left out
+     */
+    public Map<String, Integer> counts(BitSet matches) {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (Map.Entry<String, BitSet> entry : categories.entrySet()) {
+            BitSet members = entry.getValue();
+            // Intersect the smaller set into a copy of itself
+            BitSet intersection;
+            if (members.length() < matches.length()) {
+                intersection = (BitSet) members.clone();
+                intersection.and(matches);
+            } else {
+                intersection = (BitSet) matches.clone();
+                intersection.and(members);
+            }
+            int count = intersection.cardinality();
+            if (count > 0) {
+                counts.put(entry.getKey(), count);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Restricts a result set to one category
+     *
+     * @param matches  Ordinals of the products in a result set
+     * @param category The category to keep
+     * @return A new bitset with only the matches in that category
+     */
+    public BitSet filter(BitSet matches, String category) {
+        BitSet members = categories.get(category);
+        if (members == null) {
+            return new BitSet();
+        }
+        BitSet filtered = (BitSet) matches.clone();
+        filtered.and(members);
+        return filtered;
+    }
+}
@@ -0,0 +1,204 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Read-only, column-oriented copy of a product list kept in direct (off-heap)
+ * buffers. Rows are sorted by name, ignoring case, when the store is built.
+ * <ul>
+ * <li>id and name columns: UTF-8 bytes back to back, plus an offset column</li>
+ * <li>category column: one short code per row into a small dictionary</li>
+ * </ul>
+ * Scans compare the encoded bytes directly, so no Product or String objects are
+ * created per row.
+ */
+public class ColumnarProductStore {
+    private final int rows;
+    private final IntBuffer idOffsets;
+    private final ByteBuffer idBytes;
+    private final IntBuffer nameOffsets;
+    private final ByteBuffer nameBytes;
+    private final ShortBuffer categoryCodes;
+    private final String[] categoryDictionary;
+
+    private ColumnarProductStore(int rows, IntBuffer idOffsets, ByteBuffer idBytes, IntBuffer nameOffsets,
+            ByteBuffer nameBytes, ShortBuffer categoryCodes, String[] categoryDictionary) {
+        this.rows = rows;
+        this.idOffsets = idOffsets;
+        this.idBytes = idBytes;
+        this.nameOffsets = nameOffsets;
+        this.nameBytes = nameBytes;
+        this.categoryCodes = categoryCodes;
+        this.categoryDictionary = categoryDictionary;
+    }
+
+    /**
+     * Encodes a product list into columns. The list itself is not modified.
+     *
+     * @param products The products to store
+     * @return The columnar store, rows sorted by name ignoring case
+     */
+    public static ColumnarProductStore of(List<Product> products) {
+        List<Product> sorted = new ArrayList<>(products);
+        sorted.sort((p1, p2) -> p1.name.compareToIgnoreCase(p2.name));
+        int rows = sorted.size();
+
+        byte[][] ids = new byte[rows][];
+        byte[][] names = new byte[rows][];
+        int idTotal = 0;
+        int nameTotal = 0;
+        HashMap<String, Integer> codes = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        short[] categoryOf = new short[rows];
+        for (int row = 0; row < rows; row++) {
+            Product product = sorted.get(row);
+            ids[row] = product.id.getBytes(StandardCharsets.UTF_8);
+            names[row] = product.name.getBytes(StandardCharsets.UTF_8);
+            idTotal = Math.addExact(idTotal, ids[row].length);
+            nameTotal = Math.addExact(nameTotal, names[row].length);
+            Integer code = codes.get(product.category);
+            if (code == null) {
+                if (dictionary.size() > Short.MAX_VALUE) {
+                    throw new IllegalArgumentException("Too many distinct categories: " + dictionary.size());
+                }
+                code = dictionary.size();
+                codes.put(product.category, code);
+                dictionary.add(product.category);
+            }
+            categoryOf[row] = (short) (int) code;
+        }
+
+        IntBuffer idOffsets = allocate(4 * (rows + 1)).asIntBuffer();
+        ByteBuffer idBytes = allocate(idTotal);
+        IntBuffer nameOffsets = allocate(4 * (rows + 1)).asIntBuffer();
+        ByteBuffer nameBytes = allocate(nameTotal);
+        ShortBuffer categoryCodes = allocate(2 * rows).asShortBuffer();
+        for (int row = 0; row < rows; row++) {
+            idOffsets.put(row, idBytes.position());
+            idBytes.put(ids[row]);
+            nameOffsets.put(row, nameBytes.position());
+            nameBytes.put(names[row]);
+            categoryCodes.put(row, categoryOf[row]);
+        }
+        idOffsets.put(rows, idBytes.position());
+        nameOffsets.put(rows, nameBytes.position());
+        return new ColumnarProductStore(rows, idOffsets, idBytes, nameOffsets, nameBytes, categoryCodes,
+                dictionary.toArray(new String[0]));
+    }
+
+    /**
+     * Sequential scan of the id column
+     *
+     * @param id The ID to look for
+     * @return The row holding the ID, or -1 if there is none
+     */
+    public int linearSearch(String id) {
+        byte[] key = id.getBytes(StandardCharsets.UTF_8);
+        for (int row = 0; row < rows; row++) {
+            int start = idOffsets.get(row);
+            if (Utf8Strings.equalsAt(idBytes, start, idOffsets.get(row + 1) - start, key)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Binary search on the name column, ignoring case. Rows were sorted when the
+     * store was built, so no sort happens here.
+     *
+     * @param name The name to look for
+     * @return The row holding the name, or -1 if there is none
+     */
+    public int binarySearch(String name) {
+        int left = 0, right = rows - 1;
+        while (left <= right) {
+            int mid = left + (right - left) / 2;
+            int compare = compareNameIgnoreCase(mid, name);
+            if (compare == 0)
+                return mid;
+            else if (compare < 0)
+                left = mid + 1;
+            else
+                right = mid - 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Scans the category column, comparing dictionary codes only
+     *
+     * @param category The category to look for
+     * @return The rows in that category, in row order
+     */
+    public int[] rowsInCategory(String category) {
+        int code = Arrays.asList(categoryDictionary).indexOf(category);
+        if (code == -1) {
+            return new int[0];
+        }
+        int[] result = new int[16];
+        int count = 0;
+        for (int row = 0; row < rows; row++) {
+            if (categoryCodes.get(row) == code) {
+                if (count == result.length) {
+                    result = Arrays.copyOf(result, count * 2);
+                }
+                result[count++] = row;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    public int size() {
+        return rows;
+    }
+
+    public String id(int row) {
+        return decode(idBytes, idOffsets, row);
+    }
+
+    public String name(int row) {
+        return decode(nameBytes, nameOffsets, row);
+    }
+
+    public String category(int row) {
+        return categoryDictionary[categoryCodes.get(row)];
+    }
+
+    /**
+     * Materializes one row, for callers that need a Product object
+     *
+     * @param row The row to read
+     * @return A new Product with the row's values
+     */
+    public Product toProduct(int row) {
+        return new Product(id(row), category(row), name(row));
+    }
+
+    /**
+     * @return Bytes held off-heap by the columns
+     */
+    public long offHeapBytes() {
+        return idBytes.capacity() + nameBytes.capacity() + 8L * (rows + 1) + 2L * rows;
+    }
+
+    private int compareNameIgnoreCase(int row, String key) {
+        int start = nameOffsets.get(row);
+        return Utf8Strings.compareIgnoreCase(nameBytes, start, nameOffsets.get(row + 1) - start, key);
+    }
+
+    private static String decode(ByteBuffer column, IntBuffer offsets, int row) {
+        int start = offsets.get(row);
+        return Utf8Strings.decode(column, start, offsets.get(row + 1) - start);
+    }
+
+    private static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+}
@@ -0,0 +1,310 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.IntConsumer;
+
+/**
+ * Inverted index from lower-cased tokens to the ordinals of the products whose
+ * name or category contains them. Posting lists are kept sorted, delta-encoded
+ * and varint-compressed, with a skip entry every {@value #SKIP_INTERVAL}
+ * postings so AND queries can jump over blocks instead of decoding them.
+ */
+public class InvertedIndex {
+    static final int SKIP_INTERVAL = 64;
+
+    /**
+     * Sorted, compressed list of ordinals for one token. Ordinals must be appended
+     * in increasing order.
+     */
+    static final class PostingList {
+        private byte[] data = new byte[8];
+        private int length;
+        private int count;
+        private int last = -1;
+        // skipOrdinals[b] is the last ordinal before block b + 1, skipOffsets[b] the
+        // byte offset where block b + 1 starts
+        private int[] skipOrdinals = new int[0];
+        private int[] skipOffsets = new int[0];
+
+        void add(int ordinal) {
+            if (count > 0 && count % SKIP_INTERVAL == 0) {
+                int blocks = skipOrdinals.length;
+                skipOrdinals = Arrays.copyOf(skipOrdinals, blocks + 1);
+                skipOffsets = Arrays.copyOf(skipOffsets, blocks + 1);
+                skipOrdinals[blocks] = last;
+                skipOffsets[blocks] = length;
+            }
+            writeVarint(ordinal - last);
+            last = ordinal;
+            count++;
+        }
+
+        int count() {
+            return count;
+        }
+
+        int last() {
+            return last;
+        }
+
+        long memoryBytes() {
+            return data.length + 4L * (skipOrdinals.length + skipOffsets.length);
+        }
+
+        PostingIterator iterator() {
+            return new PostingIterator(this);
+        }
+
+        private void writeVarint(int value) {
+            if (length + 5 > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            while ((value & ~0x7F) != 0) {
+                data[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[length++] = (byte) value;
+        }
+    }
+
+    /**
+     * Forward-only cursor over a posting list
+     */
+    static final class PostingIterator {
+        private final PostingList list;
+        private int offset;
+        private int index;
+        private int current = -1;
+
+        PostingIterator(PostingList list) {
+            this.list = list;
+        }
+
+        /**
+         * @return The next ordinal, or -1 when the list is exhausted
+         */
+        int next() {
+            if (index >= list.count) {
+                index = list.count + 1;
+                return -1;
+            }
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = list.data[offset++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            index++;
+            return current += delta;
+        }
+
+        /**
+         * Moves to the first ordinal that is greater than or equal to the target,
+         * skipping whole blocks where possible
+         *
+         * @param target The ordinal to advance to
+         * @return The ordinal reached, or -1 when the list is exhausted
+         */
+        int advance(int target) {
+            if (index > list.count) {
+                return -1;
+            }
+            if (index > 0 && current >= target) {
+                return current;
+            }
+            int[] skipOrdinals = list.skipOrdinals;
+            int block = index / SKIP_INTERVAL;
+            if (block < skipOrdinals.length && skipOrdinals[block] < target) {
+                while (block + 1 < skipOrdinals.length && skipOrdinals[block + 1] < target) {
+                    block++;
+                }
+                // Position right before the first posting of block + 1
+                offset = list.skipOffsets[block];
+                index = (block + 1) * SKIP_INTERVAL;
+                current = skipOrdinals[block];
+            }
+            int ordinal;
+            do {
+                ordinal = next();
+            } while (ordinal != -1 && ordinal < target);
+            return ordinal;
+        }
+    }
+
+    private final HashMap<String, PostingList> postings = new HashMap<>();
+
+    /**
+     * Indexes the tokens of a product's name and category. Ordinals must be added
+     * in increasing order.
+     *
+     * @param ordinal The product ordinal
+     * @param fields  The text fields to tokenize
+     */
+    public void add(int ordinal, String... fields) {
+        for (String field : fields) {
+            for (String token : tokenize(field)) {
+                PostingList list = postings.computeIfAbsent(token, k -> new PostingList());
+                // A token seen twice for the same product is only posted once
+                if (list.last() != ordinal) {
+                    list.add(ordinal);
+                }
+            }
+        }
+    }
+
+    /**
+     * Evaluates a multi-term query
+     *
+     * @param query    Free text, split into tokens the same way as indexed fields
+     * @param matchAll true to require every token (AND), false for any token (OR)
+     * @return Matching ordinals in increasing order
+     */
+    public int[] search(String query, boolean matchAll) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return new int[0];
+        }
+        List<PostingList> lists = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            PostingList list = postings.get(token);
+            if (list != null) {
+                lists.add(list);
+            } else if (matchAll) {
+                return new int[0];
+            }
+        }
+        return matchAll ? intersect(lists) : union(lists);
+    }
+
+    /**
+     * Streams the ordinals matching any token of the query (OR) in increasing
+     * order, each once, by merging the posting lists as they are decoded. Unlike
+     * {@link #search(String, boolean)} no result array is built, so memory is
+     * O(t) for t query tokens however many products match.
+     *
+     * @param query  Free text, split into tokens the same way as indexed fields
+     * @param action Receives each matching ordinal
+     */
+    public void forEachMatch(String query, IntConsumer action) {
+        List<String> tokens = tokenize(query);
+        PostingIterator[] iterators = new PostingIterator[tokens.size()];
+        int[] heads = new int[tokens.size()];
+        int count = 0;
+        for (String token : tokens) {
+            PostingList list = postings.get(token);
+            if (list != null) {
+                iterators[count] = list.iterator();
+                heads[count] = iterators[count].next();
+                count++;
+            }
+        }
+        // Queries have a handful of tokens, so a linear scan for the smallest head
+        // beats a heap
+        while (true) {
+            int min = -1;
+            for (int i = 0; i < count; i++) {
+                if (heads[i] != -1 && (min == -1 || heads[i] < min)) {
+                    min = heads[i];
+                }
+            }
+            if (min == -1) {
+                return;
+            }
+            action.accept(min);
+            for (int i = 0; i < count; i++) {
+                if (heads[i] == min) {
+                    heads[i] = iterators[i].next();
+                }
+            }
+        }
+    }
+
+    /**
+     * @param token A lower-case token
+     * @return Number of products containing the token
+     */
+    public int documentFrequency(String token) {
+        PostingList list = postings.get(token);
+        return list == null ? 0 : list.count();
+    }
+
+    /**
+     * @return Approximate bytes used by the compressed posting lists
+     */
+    public long memoryBytes() {
+        long bytes = 0;
+        for (PostingList list : postings.values()) {
+            bytes += list.memoryBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Splits text into lower-case tokens at every character that is not a letter
+     * or digit
+     *
+     * @param text The text to tokenize
+     * @return The tokens, in order of appearance
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start == -1) {
+                start = i;
+            } else if (!wordChar && start != -1) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Drives the intersection from the shortest list and advances the others to it
+    private static int[] intersect(List<PostingList> lists) {
+        lists.sort((a, b) -> Integer.compare(a.count(), b.count()));
+        PostingIterator[] iterators = new PostingIterator[lists.size()];
+        for (int i = 0; i < iterators.length; i++) {
+            iterators[i] = lists.get(i).iterator();
+        }
+        int[] result = new int[lists.get(0).count()];
+        int count = 0;
+        int candidate = iterators[0].next();
+        while (candidate != -1) {
+            int i = 1;
+            for (; i < iterators.length; i++) {
+                int reached = iterators[i].advance(candidate);
+                if (reached == -1) {
+                    return Arrays.copyOf(result, count);
+                }
+                if (reached != candidate) {
+                    candidate = iterators[0].advance(reached);
+                    break;
+                }
+            }
+            if (i == iterators.length) {
+                result[count++] = candidate;
+                candidate = iterators[0].next();
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static int[] union(List<PostingList> lists) {
+        BitSet matches = new BitSet();
+        for (PostingList list : lists) {
+            PostingIterator iterator = list.iterator();
+            for (int ordinal = iterator.next(); ordinal != -1; ordinal = iterator.next()) {
+                matches.set(ordinal);
+            }
+        }
+        return matches.stream().toArray();
+    }
+}
@@ -0,0 +1,151 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only product catalog backed by a memory-mapped file written by
+ * {@link MappedCatalogWriter}. Opening the file only maps it and checks the
+ * header; lookups read the mapped bytes directly, so there is no parse step and
+ * the OS pages data in on demand.
+ *
+ * <pre>
+ * Header      magic, version, row count, category count, ID table capacity,
+ *             section offsets, string pool length (all little-endian ints)
+ * Row table   per row: id offset, id length, name offset, name length,
+ *             category code; rows are sorted by name ignoring case, so the
+ *             table doubles as the sorted name index
+ * Categories  per category: offset, length
+ * ID table    open-addressing hash table of row + 1 (0 = empty slot),
+ *             keyed by the FNV-1a hash of the UTF-8 ID
+ * String pool UTF-8 bytes of every ID, name and category
+ * </pre>
+ */
+public class MappedCatalog {
+    static final int MAGIC = 0x50434154; // "PCAT"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 40;
+    static final int ROW_BYTES = 20;
+    static final int CATEGORY_BYTES = 8;
+
+    private final ByteBuffer file;
+    private final int rows;
+    private final int idTableMask;
+    private final int rowTable;
+    private final int categoryTable;
+    private final int idTable;
+    private final int pool;
+
+    private MappedCatalog(ByteBuffer file) throws IOException {
+        this.file = file;
+        if (file.capacity() < HEADER_BYTES || file.getInt(0) != MAGIC) {
+            throw new IOException("Not a catalog file");
+        }
+        if (file.getInt(4) != VERSION) {
+            throw new IOException("Unsupported catalog file version: " + file.getInt(4));
+        }
+        rows = file.getInt(8);
+        idTableMask = file.getInt(16) - 1;
+        rowTable = file.getInt(20);
+        categoryTable = file.getInt(24);
+        idTable = file.getInt(28);
+        pool = file.getInt(32);
+        if ((long) pool + file.getInt(36) != file.capacity()) {
+            throw new IOException("Truncated catalog file");
+        }
+    }
+
+    /**
+     * Maps a catalog file into memory
+     *
+     * @param path The catalog file
+     * @return The opened catalog
+     * @throws IOException If the file cannot be read or is not a catalog file
+     */
+    public static MappedCatalog open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Catalog file larger than 2 GB: " + path);
+            }
+            // The mapping stays valid after the channel is closed
+            ByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedCatalog(file.order(ByteOrder.LITTLE_ENDIAN));
+        }
+    }
+
+    /**
+     * Looks up an ID in the on-disk hash table in O(1)
+     *
+     * @param id The ID to look for
+     * @return The row holding the ID, or -1 if there is none
+     */
+    public int findById(String id) {
+        byte[] key = id.getBytes(StandardCharsets.UTF_8);
+        int slot = Utf8Strings.hash(key) & idTableMask;
+        while (true) {
+            int row = file.getInt(idTable + 4 * slot) - 1;
+            if (row == -1) {
+                return -1;
+            }
+            int at = rowTable + row * ROW_BYTES;
+            if (Utf8Strings.equalsAt(file, pool + file.getInt(at), file.getInt(at + 4), key)) {
+                return row;
+            }
+            slot = (slot + 1) & idTableMask;
+        }
+    }
+
+    /**
+     * Binary search over the name-sorted row table, ignoring case, in O(log n)
+     *
+     * @param name The name to look for
+     * @return The row holding the name, or -1 if there is none
+     */
+    public int binarySearch(String name) {
+        int left = 0, right = rows - 1;
+        while (left <= right) {
+            int mid = left + (right - left) / 2;
+            int at = rowTable + mid * ROW_BYTES;
+            int compare = Utf8Strings.compareIgnoreCase(file, pool + file.getInt(at + 8), file.getInt(at + 12), name);
+            if (compare == 0)
+                return mid;
+            else if (compare < 0)
+                left = mid + 1;
+            else
+                right = mid - 1;
+        }
+        return -1;
+    }
+
+    public int size() {
+        return rows;
+    }
+
+    public String id(int row) {
+        int at = rowTable + row * ROW_BYTES;
+        return Utf8Strings.decode(file, pool + file.getInt(at), file.getInt(at + 4));
+    }
+
+    public String name(int row) {
+        int at = rowTable + row * ROW_BYTES;
+        return Utf8Strings.decode(file, pool + file.getInt(at + 8), file.getInt(at + 12));
+    }
+
+    public String category(int row) {
+        int at = categoryTable + file.getInt(rowTable + row * ROW_BYTES + 16) * CATEGORY_BYTES;
+        return Utf8Strings.decode(file, pool + file.getInt(at), file.getInt(at + 4));
+    }
+
+    /**
+     * Materializes one row, for callers that need a Product object
+     *
+     * @param row The row to read
+     * @return A new Product with the row's values
+     */
+    public Product toProduct(int row) {
+        return new Product(id(row), category(row), name(row));
+    }
+}
@@ -0,0 +1,209 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Builds the binary catalog file read by {@link MappedCatalog}.
+ *
+ * <p>
+ * The writer sorts every row by name before writing, so it holds the whole
+ * catalog on the heap, and the file format uses 32-bit offsets, so a catalog
+ * file is limited to 2 GB. Each product takes 28 to 36 bytes of tables plus its
+ * ID and name, which is room for about 30 million products with 30 bytes of
+ * text each; larger catalogs have to be split across several files.
+ */
+public class MappedCatalogWriter {
+    private static final List<String> HEADER = List.of("id", "category", "name");
+
+    private MappedCatalogWriter() {
+    }
+
+    /**
+     * Converts a CSV file with an "id,category,name" header line into a catalog
+     * file. Fields may be double-quoted; quotes inside quoted fields are
+     * doubled.
+     *
+     * @param csv    The CSV input
+     * @param output The catalog file to create or replace
+     * @throws IOException If reading or writing fails, the header is missing or
+     *                     has other columns, or a line is malformed
+     */
+    public static void fromCsv(Path csv, Path output) throws IOException {
+        List<Product> products = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            checkHeader(line, csv);
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) {
+                    continue;
+                }
+                List<String> fields = parseCsvLine(line);
+                if (fields.size() != 3) {
+                    throw new IOException("Expected 3 fields on line " + lineNumber + " of " + csv);
+                }
+                products.add(new Product(fields.get(0), fields.get(1), fields.get(2)));
+            }
+        }
+        write(products, output);
+    }
+
+    /**
+     * Writes products to a catalog file. The list itself is not modified.
+     *
+     * @param products The products to write
+     * @param output   The catalog file to create or replace
+     * @throws IOException If writing fails or the catalog exceeds 2 GB
+     */
+    public static void write(List<Product> products, Path output) throws IOException {
+        List<Product> sorted = new ArrayList<>(products);
+        sorted.sort((p1, p2) -> p1.name.compareToIgnoreCase(p2.name));
+        int rows = sorted.size();
+
+        HashMap<String, Integer> categoryCodes = new HashMap<>();
+        List<String> categories = new ArrayList<>();
+        byte[][] ids = new byte[rows][];
+        byte[][] names = new byte[rows][];
+        long poolLength = 0;
+        for (int row = 0; row < rows; row++) {
+            Product product = sorted.get(row);
+            ids[row] = product.id.getBytes(StandardCharsets.UTF_8);
+            names[row] = product.name.getBytes(StandardCharsets.UTF_8);
+            poolLength += ids[row].length + names[row].length;
+            if (categoryCodes.putIfAbsent(product.category, categories.size()) == null) {
+                categories.add(product.category);
+            }
+        }
+        byte[][] categoryBytes = new byte[categories.size()][];
+        for (int i = 0; i < categoryBytes.length; i++) {
+            categoryBytes[i] = categories.get(i).getBytes(StandardCharsets.UTF_8);
+            poolLength += categoryBytes[i].length;
+        }
+
+        // Keep the ID table at most half full so probe chains stay short
+        int capacity = Integer.highestOneBit(Math.max(1, rows) * 2 - 1) << 1;
+        long rowTable = MappedCatalog.HEADER_BYTES;
+        long categoryTable = rowTable + (long) rows * MappedCatalog.ROW_BYTES;
+        long idTable = categoryTable + (long) categories.size() * MappedCatalog.CATEGORY_BYTES;
+        long pool = idTable + 4L * capacity;
+        long total = pool + poolLength;
+        if (total > Integer.MAX_VALUE) {
+            throw new IOException("Catalog too large for a single mapped file: " + total + " bytes");
+        }
+
+        Files.deleteIfExists(output);
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, total);
+            ByteBuffer file = mapped.order(ByteOrder.LITTLE_ENDIAN);
+            file.putInt(0, MappedCatalog.MAGIC);
+            file.putInt(4, MappedCatalog.VERSION);
+            file.putInt(8, rows);
+            file.putInt(12, categories.size());
+            file.putInt(16, capacity);
+            file.putInt(20, (int) rowTable);
+            file.putInt(24, (int) categoryTable);
+            file.putInt(28, (int) idTable);
+            file.putInt(32, (int) pool);
+            file.putInt(36, (int) poolLength);
+
+            int poolPosition = 0;
+            for (int i = 0; i < categoryBytes.length; i++) {
+                int at = (int) categoryTable + i * MappedCatalog.CATEGORY_BYTES;
+                file.putInt(at, poolPosition);
+                file.putInt(at + 4, categoryBytes[i].length);
+                file.put((int) pool + poolPosition, categoryBytes[i]);
+                poolPosition += categoryBytes[i].length;
+            }
+            int mask = capacity - 1;
+            for (int row = 0; row < rows; row++) {
+                int at = (int) rowTable + row * MappedCatalog.ROW_BYTES;
+                file.putInt(at, poolPosition);
+                file.putInt(at + 4, ids[row].length);
+                file.put((int) pool + poolPosition, ids[row]);
+                poolPosition += ids[row].length;
+                file.putInt(at + 8, poolPosition);
+                file.putInt(at + 12, names[row].length);
+                file.put((int) pool + poolPosition, names[row]);
+                poolPosition += names[row].length;
+                file.putInt(at + 16, categoryCodes.get(sorted.get(row).category));
+
+                // Duplicate IDs keep their first row
+                int slot = Utf8Strings.hash(ids[row]) & mask;
+                boolean duplicate = false;
+                int existing;
+                while ((existing = file.getInt((int) idTable + 4 * slot)) != 0) {
+                    if (Arrays.equals(ids[existing - 1], ids[row])) {
+                        duplicate = true;
+                        break;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                if (!duplicate) {
+                    file.putInt((int) idTable + 4 * slot, row + 1);
+                }
+            }
+            mapped.force();
+        }
+    }
+
+    // The columns are read by position, so a file with them in another order
+    // would silently swap names and categories
+    private static void checkHeader(String line, Path csv) throws IOException {
+        if (line == null) {
+            throw new IOException("Missing \"id,category,name\" header in " + csv);
+        }
+        // Editors on Windows often start UTF-8 files with a byte order mark
+        if (line.startsWith("\uFEFF")) {
+            line = line.substring(1);
+        }
+        List<String> columns = new ArrayList<>(3);
+        for (String column : parseCsvLine(line)) {
+            columns.add(column.trim().toLowerCase(Locale.ROOT));
+        }
+        if (!columns.equals(HEADER)) {
+            throw new IOException("Expected an \"id,category,name\" header in " + csv + " but found: " + line);
+        }
+    }
+
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,135 @@
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Parallel scans for predicates that no index covers, such as a substring match
+ * on the name. The product list is split into index ranges by
+ * {@link ProductSpliterator} and the chunks are evaluated on the common
+ * fork-join pool.
+ */
+public class ParallelProductScan {
+    // Below this many products per chunk, forking costs more than it saves
+    static final int DEFAULT_MIN_CHUNK = 4096;
+
+    private ParallelProductScan() {
+    }
+
+    /**
+     * Collects every product matching the predicate, in list order
+     *
+     * @param products  A random-access product list; must not change during the
+     *                  scan
+     * @param predicate The condition to test
+     * @return The matching products
+     */
+    public static List<Product> findAll(List<Product> products, Predicate<Product> predicate) {
+        return stream(products).filter(predicate).collect(Collectors.toList());
+    }
+
+    /**
+     * Finds the matching product with the lowest index. Chunks after a match
+     * stop being evaluated once every earlier chunk has been ruled out.
+     *
+     * @param products  A random-access product list
+     * @param predicate The condition to test
+     * @return The first matching product, if any
+     */
+    public static Optional<Product> findFirst(List<Product> products, Predicate<Product> predicate) {
+        return stream(products).filter(predicate).findFirst();
+    }
+
+    /**
+     * Finds any matching product. Every worker stops as soon as one match is
+     * found, which makes this cheaper than {@link #findFirst} when order does not
+     * matter.
+     *
+     * @param products  A random-access product list
+     * @param predicate The condition to test
+     * @return Some matching product, if any
+     */
+    public static Optional<Product> findAny(List<Product> products, Predicate<Product> predicate) {
+        return stream(products).filter(predicate).findAny();
+    }
+
+    /**
+     * @param products  A random-access product list
+     * @param predicate The condition to test
+     * @return Number of matching products
+     */
+    public static long count(List<Product> products, Predicate<Product> predicate) {
+        return stream(products).filter(predicate).count();
+    }
+
+    /**
+     * @param products A random-access product list
+     * @return A parallel stream over the list, split into chunks of at least
+     *         {@value #DEFAULT_MIN_CHUNK} products
+     */
+    public static Stream<Product> stream(List<Product> products) {
+        return StreamSupport.stream(new ProductSpliterator(products, 0, products.size(), DEFAULT_MIN_CHUNK), true);
+    }
+
+    /**
+     * Splits an index range of a random-access list in halves until the pieces
+     * reach the minimum chunk size. Each piece reads the list by index, so no
+     * intermediate buffers are created.
+     */
+    static final class ProductSpliterator implements Spliterator<Product> {
+        private final List<Product> products;
+        private final int minChunk;
+        private int from;
+        private final int to;
+
+        ProductSpliterator(List<Product> products, int from, int to, int minChunk) {
+            this.products = products;
+            this.from = from;
+            this.to = to;
+            this.minChunk = minChunk;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Product> action) {
+            if (from >= to) {
+                return false;
+            }
+            action.accept(products.get(from++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Product> action) {
+            for (int i = from; i < to; i++) {
+                action.accept(products.get(i));
+            }
+            from = to;
+        }
+
+        @Override
+        public Spliterator<Product> trySplit() {
+            int remaining = to - from;
+            if (remaining < 2 * minChunk) {
+                return null;
+            }
+            int mid = from + remaining / 2;
+            ProductSpliterator prefix = new ProductSpliterator(products, from, mid, minChunk);
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED;
+        }
+    }
+}
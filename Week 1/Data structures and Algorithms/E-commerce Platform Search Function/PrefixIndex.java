@@ -0,0 +1,353 @@
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Compressed trie (radix tree) over lower-cased product names for type-ahead
+ * and typo-tolerant search. Each edge holds a whole run of characters, so a
+ * chain of single-child nodes collapses into one node, and names that end at a
+ * node store the product ordinals there.
+ */
+public class PrefixIndex {
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final int[] NO_ORDINALS = new int[0];
+
+    private static final class Node {
+        String label;
+        // First character of each child label, sorted, for binary search
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        int[] ordinals = NO_ORDINALS;
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private final Node root = new Node("");
+    private int size;
+
+    /**
+     * Adds a name with the ordinal of the product that carries it
+     *
+     * @param name    The product name
+     * @param ordinal The product ordinal
+     */
+    public void add(String name, int ordinal) {
+        String key = name.toLowerCase(Locale.ROOT);
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int slot = Arrays.binarySearch(node.keys, key.charAt(i));
+            if (slot < 0) {
+                Node leaf = new Node(key.substring(i));
+                leaf.ordinals = new int[] { ordinal };
+                insertChild(node, -slot - 1, leaf);
+                size++;
+                return;
+            }
+            Node child = node.children[slot];
+            int common = commonPrefixLength(child.label, key, i);
+            if (common < child.label.length()) {
+                // Split the edge so the shared part becomes its own node
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.keys = new char[] { child.label.charAt(0) };
+                middle.children = new Node[] { child };
+                node.children[slot] = middle;
+                child = middle;
+            }
+            node = child;
+            i += common;
+        }
+        node.ordinals = Arrays.copyOf(node.ordinals, node.ordinals.length + 1);
+        node.ordinals[node.ordinals.length - 1] = ordinal;
+        size++;
+    }
+
+    /**
+     * Removes a name/ordinal pair. A node left with no names below it is pruned,
+     * and one left with no names and a single child is merged into that child, so
+     * the trie stays as compact as if the name had never been added.
+     *
+     * @param name    The product name
+     * @param ordinal The product ordinal
+     * @return true if the pair was present
+     */
+    public boolean remove(String name, int ordinal) {
+        return remove(root, name.toLowerCase(Locale.ROOT), 0, ordinal);
+    }
+
+    /**
+     * Returns the ordinals of at most k names starting with the prefix, ignoring
+     * case, in name order. Every leaf holds a name and every other node below the
+     * root holds a name or branches, so visiting the first k matches touches
+     * O(k) nodes and the cost is O(prefix length + k) regardless of how many
+     * names share the prefix.
+     *
+     * @param prefix The prefix typed so far
+     * @param k      Maximum number of results
+     * @return Up to k product ordinals
+     */
+    public int[] topK(String prefix, int k) {
+        if (k <= 0) {
+            return NO_ORDINALS;
+        }
+        Node start = find(prefix.toLowerCase(Locale.ROOT));
+        if (start == null) {
+            return NO_ORDINALS;
+        }
+        int[] result = new int[k];
+        int count = collect(start, result, 0);
+        return count == k ? result : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Finds every name within an edit distance of the query, ignoring case.
+     * <p>
+     * This simulates a Levenshtein automaton over the trie: each character on the
+     * path extends one row of the edit-distance table, shared by every name below
+     * that point, and a branch is abandoned as soon as the smallest value in its
+     * row exceeds the bound. Only paths that stay within the bound are expanded,
+     * so for distance 1 or 2 a small fraction of the trie is visited.
+     *
+     * @param query       The possibly misspelled name
+     * @param maxDistance Maximum number of insertions, deletions and
+     *                    substitutions
+     * @return Matches encoded as (distance << 32 | ordinal), sorted by distance
+     *         and then ordinal
+     */
+    public long[] fuzzy(String query, int maxDistance) {
+        String key = query.toLowerCase(Locale.ROOT);
+        FuzzyWalk walk = new FuzzyWalk(key, maxDistance);
+        for (int j = 0; j <= key.length(); j++) {
+            walk.row(0)[j] = j;
+        }
+        walk.visit(root, 0);
+        long[] result = Arrays.copyOf(walk.matches, walk.count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Estimates the heap used by the trie, assuming compressed oops (12-byte object
+     * headers, 4-byte references) and Latin-1 compact strings
+     *
+     * @return Approximate footprint in bytes
+     */
+    public long memoryBytes() {
+        return memoryBytes(root);
+    }
+
+    /**
+     * @return Approximate footprint in bytes scaled to one million names
+     */
+    public long bytesPerMillionEntries() {
+        return size == 0 ? 0 : memoryBytes() * 1_000_000L / size;
+    }
+
+    // Finds the first node whose path starts with the key
+    private Node find(String key) {
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int slot = Arrays.binarySearch(node.keys, key.charAt(i));
+            if (slot < 0) {
+                return null;
+            }
+            Node child = node.children[slot];
+            int common = commonPrefixLength(child.label, key, i);
+            if (common < child.label.length()) {
+                return i + common == key.length() ? child : null;
+            }
+            node = child;
+            i += common;
+        }
+        return node;
+    }
+
+    // Removes the pair from the subtree under the node at offset i of the key,
+    // then prunes or merges the child on the path if the removal emptied it
+    private boolean remove(Node node, String key, int i, int ordinal) {
+        if (i == key.length()) {
+            return removeOrdinal(node, ordinal);
+        }
+        int slot = Arrays.binarySearch(node.keys, key.charAt(i));
+        if (slot < 0) {
+            return false;
+        }
+        Node child = node.children[slot];
+        if (commonPrefixLength(child.label, key, i) < child.label.length()
+                || !remove(child, key, i + child.label.length(), ordinal)) {
+            return false;
+        }
+        if (child.ordinals.length == 0) {
+            if (child.children.length == 0) {
+                removeChild(node, slot);
+            } else if (child.children.length == 1) {
+                // Undo the split that created the child; the first character of
+                // the edge, and so the key, stays the same
+                Node grandchild = child.children[0];
+                grandchild.label = child.label + grandchild.label;
+                node.children[slot] = grandchild;
+            }
+        }
+        return true;
+    }
+
+    private boolean removeOrdinal(Node node, int ordinal) {
+        int[] ordinals = node.ordinals;
+        for (int j = 0; j < ordinals.length; j++) {
+            if (ordinals[j] == ordinal) {
+                int[] remaining = new int[ordinals.length - 1];
+                System.arraycopy(ordinals, 0, remaining, 0, j);
+                System.arraycopy(ordinals, j + 1, remaining, j, remaining.length - j);
+                node.ordinals = remaining.length == 0 ? NO_ORDINALS : remaining;
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int collect(Node node, int[] result, int count) {
+        for (int j = 0; j < node.ordinals.length && count < result.length; j++) {
+            result[count++] = node.ordinals[j];
+        }
+        for (int j = 0; j < node.children.length && count < result.length; j++) {
+            count = collect(node.children[j], result, count);
+        }
+        return count;
+    }
+
+    // State of one fuzzy query: the edit-distance rows along the current path,
+    // reused across branches, and the matches found so far
+    private static final class FuzzyWalk {
+        final String key;
+        final int maxDistance;
+        int[][] rows = new int[16][];
+        long[] matches = new long[8];
+        int count;
+
+        FuzzyWalk(String key, int maxDistance) {
+            this.key = key;
+            this.maxDistance = maxDistance;
+        }
+
+        int[] row(int depth) {
+            if (depth == rows.length) {
+                rows = Arrays.copyOf(rows, depth * 2);
+            }
+            if (rows[depth] == null) {
+                rows[depth] = new int[key.length() + 1];
+            }
+            return rows[depth];
+        }
+
+        void visit(Node node, int depth) {
+            int m = key.length();
+            for (int i = 0; i < node.label.length(); i++) {
+                char c = node.label.charAt(i);
+                int[] previous = rows[depth];
+                int[] current = row(depth + 1);
+                // Cells further than maxDistance from the diagonal always exceed the
+                // bound, so only the band around it is computed; the cell just past
+                // the band is capped so the next row reads a value above the bound
+                int from = Math.max(1, depth + 1 - maxDistance);
+                int to = Math.min(m, depth + 1 + maxDistance);
+                current[0] = depth + 1;
+                current[from - 1] = from == 1 ? depth + 1 : maxDistance + 1;
+                int best = from == 1 ? current[0] : maxDistance + 1;
+                for (int j = from; j <= to; j++) {
+                    int cost = key.charAt(j - 1) == c ? 0 : 1;
+                    current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                    best = Math.min(best, current[j]);
+                }
+                if (to < m) {
+                    current[to + 1] = maxDistance + 1;
+                }
+                if (best > maxDistance) {
+                    return;
+                }
+                depth++;
+            }
+            int distance = Math.abs(depth - m) > maxDistance ? maxDistance + 1 : rows[depth][m];
+            if (distance <= maxDistance) {
+                for (int ordinal : node.ordinals) {
+                    if (count == matches.length) {
+                        matches = Arrays.copyOf(matches, count * 2);
+                    }
+                    matches[count++] = (long) distance << 32 | ordinal;
+                }
+            }
+            for (Node child : node.children) {
+                visit(child, depth);
+            }
+        }
+    }
+
+    private static void insertChild(Node node, int at, Node child) {
+        int n = node.keys.length;
+        char[] keys = new char[n + 1];
+        Node[] children = new Node[n + 1];
+        System.arraycopy(node.keys, 0, keys, 0, at);
+        System.arraycopy(node.children, 0, children, 0, at);
+        keys[at] = child.label.charAt(0);
+        children[at] = child;
+        System.arraycopy(node.keys, at, keys, at + 1, n - at);
+        System.arraycopy(node.children, at, children, at + 1, n - at);
+        node.keys = keys;
+        node.children = children;
+    }
+
+    private static void removeChild(Node node, int at) {
+        int n = node.keys.length;
+        if (n == 1) {
+            node.keys = NO_KEYS;
+            node.children = NO_CHILDREN;
+            return;
+        }
+        char[] keys = new char[n - 1];
+        Node[] children = new Node[n - 1];
+        System.arraycopy(node.keys, 0, keys, 0, at);
+        System.arraycopy(node.children, 0, children, 0, at);
+        System.arraycopy(node.keys, at + 1, keys, at, n - 1 - at);
+        System.arraycopy(node.children, at + 1, children, at, n - 1 - at);
+        node.keys = keys;
+        node.children = children;
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static long memoryBytes(Node node) {
+        // Node: header + 4 references
+        long bytes = 32;
+        // Label: String object + backing byte[]
+        bytes += 24 + align(16 + node.label.length());
+        if (node.keys.length > 0) {
+            bytes += align(16 + 2L * node.keys.length) + align(16 + 4L * node.children.length);
+        }
+        if (node.ordinals.length > 0) {
+            bytes += align(16 + 4L * node.ordinals.length);
+        }
+        for (Node child : node.children) {
+            bytes += memoryBytes(child);
+        }
+        return bytes;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
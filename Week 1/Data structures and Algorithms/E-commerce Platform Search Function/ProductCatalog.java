@@ -0,0 +1,376 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Product catalog that keeps a case-insensitive name index and an ID index up to
+ * date on every add/remove, so lookups never have to sort or scan the products.
+ * Each product is identified by an ordinal (its insertion position); removed
+ * products leave an empty slot so the ordinals of the others stay stable.
+ * Empty slots are never reused, so under constant churn the ordinal range, and
+ * every index sized by it, keeps growing until {@link #compact()} renumbers the
+ * products.
+ */
+public class ProductCatalog {
+    // Products by ordinal; removed products are null
+    private final ArrayList<Product> products = new ArrayList<>();
+    private ProductIdIndex idIndex = new ProductIdIndex();
+    private PrefixIndex prefixIndex = new PrefixIndex();
+    // Removed products stay in the posting lists and are filtered out at query time
+    private InvertedIndex invertedIndex = new InvertedIndex();
+    private CategoryFacets facets = new CategoryFacets();
+    // Number of products beyond the first that carry each shared ID; the ID index
+    // maps an ID to the latest of them
+    private final HashMap<String, Integer> sharedIds = new HashMap<>();
+    // Name index sorted case-insensitively; each name maps to every product that
+    // carries it, in insertion order
+    private final TreeMap<String, List<Product>> nameIndex = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private int size;
+
+    public ProductCatalog() {
+    }
+
+    /**
+     * Builds a catalog from an existing list. The list itself is only read, never
+     * reordered.
+     *
+     * @param products The products to index
+     */
+    public ProductCatalog(List<Product> products) {
+        for (Product product : products) {
+            add(product);
+        }
+    }
+
+    /**
+     * Adds a product to the name, ID, prefix, full-text and category indexes in
+     * O(log n)
+     *
+     * @param product The product to add
+     */
+    public void add(Product product) {
+        int ordinal = products.size();
+        if (idIndex.get(product.id) != -1) {
+            sharedIds.merge(product.id, 1, Integer::sum);
+        }
+        idIndex.put(product.id, ordinal);
+        prefixIndex.add(product.name, ordinal);
+        invertedIndex.add(ordinal, product.name, product.category);
+        facets.add(product.category, ordinal);
+        products.add(product);
+        nameIndex.computeIfAbsent(product.name, k -> new ArrayList<>(1)).add(product);
+        size++;
+    }
+
+    /**
+     * Removes a product from the name, ID, prefix and category indexes in
+     * O(log n). The full-text index skips it from then on. If another product
+     * shares its ID, {@link #findById} finds the latest of those afterwards,
+     * which takes a scan of the catalog.
+     *
+     * @param product The product to remove
+     * @return true if the product was part of the catalog
+     */
+    public boolean remove(Product product) {
+        int ordinal = ordinalOf(product);
+        if (ordinal == -1) {
+            return false;
+        }
+        products.set(ordinal, null);
+        idIndex.remove(product.id, ordinal);
+        Integer shared = sharedIds.remove(product.id);
+        if (shared != null) {
+            if (shared > 1) {
+                sharedIds.put(product.id, shared - 1);
+            }
+            if (idIndex.get(product.id) == -1) {
+                // The removed product was the one indexed; fall back to the latest
+                // remaining product with the same ID
+                for (int i = products.size() - 1; i >= 0; i--) {
+                    Product other = products.get(i);
+                    if (other != null && other.id.equals(product.id)) {
+                        idIndex.put(product.id, i);
+                        break;
+                    }
+                }
+            }
+        }
+        prefixIndex.remove(product.name, ordinal);
+        facets.remove(product.category, ordinal);
+        List<Product> sameName = nameIndex.get(product.name);
+        sameName.remove(product);
+        if (sameName.isEmpty()) {
+            nameIndex.remove(product.name);
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Renumbers the products so their ordinals run from 0 to size() - 1 with no
+     * empty slots, keeping their order, and rebuilds every index in O(n log n).
+     * Call it after many removals; ordinals obtained before, and the
+     * {@link #prefixIndex()}, are no longer valid afterwards.
+     */
+    public void compact() {
+        if (products.size() == size) {
+            return;
+        }
+        List<Product> live = new ArrayList<>(size);
+        for (Product product : products) {
+            if (product != null) {
+                live.add(product);
+            }
+        }
+        products.clear();
+        products.trimToSize();
+        idIndex = new ProductIdIndex(live.size());
+        prefixIndex = new PrefixIndex();
+        invertedIndex = new InvertedIndex();
+        facets = new CategoryFacets();
+        sharedIds.clear();
+        nameIndex.clear();
+        size = 0;
+        for (Product product : live) {
+            add(product);
+        }
+    }
+
+    /**
+     * Finds a product by ID in O(1)
+     *
+     * @param id The ID to look for
+     * @return The matching product, or null if there is none
+     */
+    public Product findById(String id) {
+        int ordinal = idIndex.get(id);
+        return ordinal == -1 ? null : products.get(ordinal);
+    }
+
+    /**
+     * @param ordinal The product ordinal
+     * @return The product at that ordinal, or null if it was removed
+     */
+    public Product get(int ordinal) {
+        return products.get(ordinal);
+    }
+
+    /**
+     * @param product The product to look for
+     * @return The ordinal of the product, or -1 if it is not in the catalog
+     */
+    public int ordinalOf(Product product) {
+        int ordinal = idIndex.get(product.id);
+        if (ordinal != -1 && products.get(ordinal) == product) {
+            return ordinal;
+        }
+        List<Product> sameName = nameIndex.get(product.name);
+        if (sameName == null || !sameName.contains(product)) {
+            return -1;
+        }
+        // Only reached when several products share an ID
+        for (int i = 0; i < products.size(); i++) {
+            if (products.get(i) == product) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return One past the highest ordinal handed out since the catalog was
+     *         created or last compacted
+     */
+    public int ordinalLimit() {
+        return products.size();
+    }
+
+    /**
+     * Finds the first product with the given name, ignoring case, in O(log n)
+     *
+     * @param name The name to look for
+     * @return The matching product, or null if there is none
+     */
+    public Product findByName(String name) {
+        List<Product> sameName = nameIndex.get(name);
+        return sameName == null ? null : sameName.get(0);
+    }
+
+    /**
+     * Finds every product whose name lies in the range [from, to), ignoring case.
+     * Costs O(log n + m) where m is the number of matches.
+     *
+     * @param from Lower bound of the range (inclusive)
+     * @param to   Upper bound of the range (exclusive)
+     * @return The matching products in name order
+     */
+    public List<Product> findByNameRange(String from, String to) {
+        if (String.CASE_INSENSITIVE_ORDER.compare(from, to) >= 0) {
+            return Collections.emptyList();
+        }
+        List<Product> result = new ArrayList<>();
+        for (List<Product> sameName : nameIndex.subMap(from, true, to, false).values()) {
+            result.addAll(sameName);
+        }
+        return result;
+    }
+
+    /**
+     * Type-ahead lookup: returns at most k products whose name starts with the
+     * prefix, ignoring case, in name order
+     *
+     * @param prefix The prefix typed so far
+     * @param k      Maximum number of results
+     * @return Up to k matching products
+     */
+    public List<Product> autocomplete(String prefix, int k) {
+        int[] ordinals = prefixIndex.topK(prefix, k);
+        List<Product> result = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            result.add(products.get(ordinal));
+        }
+        return result;
+    }
+
+    /**
+     * Typo-tolerant name lookup, ignoring case
+     *
+     * @param name        The possibly misspelled name, such as "Smartwach"
+     * @param maxDistance Maximum edit distance, typically 1 or 2
+     * @return Matching products, closest first
+     */
+    public List<Product> fuzzySearch(String name, int maxDistance) {
+        long[] matches = prefixIndex.fuzzy(name, maxDistance);
+        List<Product> result = new ArrayList<>(matches.length);
+        for (long match : matches) {
+            result.add(products.get((int) match));
+        }
+        return result;
+    }
+
+    /**
+     * Full-text search over product name and category
+     *
+     * @param query    Free text such as "home machine"
+     * @param matchAll true to require every term (AND), false for any term (OR)
+     * @return Matching products in ordinal order
+     */
+    public List<Product> search(String query, boolean matchAll) {
+        int[] ordinals = searchOrdinals(query, matchAll);
+        List<Product> result = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            result.add(products.get(ordinal));
+        }
+        return result;
+    }
+
+    /**
+     * Same as {@link #search(String, boolean)} but returns ordinals
+     *
+     * @param query    Free text such as "home machine"
+     * @param matchAll true to require every term (AND), false for any term (OR)
+     * @return Ordinals of the matching products in increasing order
+     */
+    public int[] searchOrdinals(String query, boolean matchAll) {
+        int[] ordinals = invertedIndex.search(query, matchAll);
+        int live = 0;
+        for (int ordinal : ordinals) {
+            if (products.get(ordinal) != null) {
+                ordinals[live++] = ordinal;
+            }
+        }
+        return live == ordinals.length ? ordinals : Arrays.copyOf(ordinals, live);
+    }
+
+    /**
+     * Full-text search that returns only the k most relevant matches. Any query
+     * term may match (OR); matches are streamed straight from the posting lists,
+     * scored by {@link ProductRanker} and kept in a {@link TopKHeap}, so memory
+     * stays O(k + t) for t query terms however many products match.
+     *
+     * @param query          Free text such as "home machine"
+     * @param k              Maximum number of results
+     * @param categoryBoosts Extra score per category; may be empty
+     * @return Up to k products, most relevant first
+     */
+    public List<Product> rankedSearch(String query, int k, Map<String, Double> categoryBoosts) {
+        ProductRanker ranker = new ProductRanker(query, categoryBoosts);
+        TopKHeap heap = new TopKHeap(k);
+        invertedIndex.forEachMatch(query, ordinal -> {
+            Product product = products.get(ordinal);
+            if (product != null) {
+                heap.offer(ordinal, ranker.score(product));
+            }
+        });
+        List<Product> result = new ArrayList<>(heap.size());
+        for (int ordinal : heap.drain()) {
+            result.add(products.get(ordinal));
+        }
+        return result;
+    }
+
+    /**
+     * Full-text search restricted to one category
+     *
+     * @param query    Free text such as "home machine"
+     * @param matchAll true to require every term (AND), false for any term (OR)
+     * @param category The category to keep
+     * @return Matching products in ordinal order
+     */
+    public List<Product> search(String query, boolean matchAll, String category) {
+        BitSet filtered = facets.filter(toBitSet(searchOrdinals(query, matchAll)), category);
+        List<Product> result = new ArrayList<>(filtered.cardinality());
+        for (int ordinal = filtered.nextSetBit(0); ordinal >= 0; ordinal = filtered.nextSetBit(ordinal + 1)) {
+            result.add(products.get(ordinal));
+        }
+        return result;
+    }
+
+    /**
+     * Facet counts for a full-text query, without re-scanning the products
+     *
+     * @param query    Free text such as "home machine"
+     * @param matchAll true to require every term (AND), false for any term (OR)
+     * @return Number of matching products per category
+     */
+    public Map<String, Integer> facetCounts(String query, boolean matchAll) {
+        return facets.counts(toBitSet(searchOrdinals(query, matchAll)));
+    }
+
+    /**
+     * @return The prefix index used by {@link #autocomplete(String, int)}
+     */
+    public PrefixIndex prefixIndex() {
+        return prefixIndex;
+    }
+
+    /**
+     * Returns all products in case-insensitive name order
+     *
+     * @return The products sorted by name
+     */
+    public List<Product> sortedByName() {
+        List<Product> result = new ArrayList<>(size);
+        for (Map.Entry<String, List<Product>> entry : nameIndex.entrySet()) {
+            result.addAll(entry.getValue());
+        }
+        return result;
+    }
+
+    private static BitSet toBitSet(int[] ordinals) {
+        BitSet bits = new BitSet();
+        for (int ordinal : ordinals) {
+            bits.set(ordinal);
+        }
+        return bits;
+    }
+
+    public int size() {
+        return size;
+    }
+}
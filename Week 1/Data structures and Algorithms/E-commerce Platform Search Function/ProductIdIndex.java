@@ -0,0 +1,95 @@
+import java.util.HashMap;
+
+/**
+ * Constant-time index from product ID to product ordinal. Numeric IDs such as
+ * "1".."5" are stored unboxed in a {@link LongIntHashMap}; any other ID falls
+ * back to a regular HashMap.
+ */
+public class ProductIdIndex {
+    private final LongIntHashMap numericIds;
+    private final HashMap<String, Integer> otherIds = new HashMap<>();
+
+    public ProductIdIndex() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize Number of IDs the index should hold without resizing
+     */
+    public ProductIdIndex(int expectedSize) {
+        numericIds = new LongIntHashMap(expectedSize);
+    }
+
+    /**
+     * Maps an ID to an ordinal, replacing any previous mapping
+     *
+     * @param id      The product ID
+     * @param ordinal The product ordinal
+     */
+    public void put(String id, int ordinal) {
+        long numeric = parseNumericId(id);
+        if (numeric >= 0) {
+            numericIds.put(numeric, ordinal);
+        } else {
+            otherIds.put(id, ordinal);
+        }
+    }
+
+    /**
+     * @param id The product ID
+     * @return The ordinal for the ID, or -1 if the ID is unknown
+     */
+    public int get(String id) {
+        long numeric = parseNumericId(id);
+        if (numeric >= 0) {
+            return numericIds.get(numeric);
+        }
+        Integer ordinal = otherIds.get(id);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * Removes an ID only if it still maps to the given ordinal
+     *
+     * @param id      The product ID
+     * @param ordinal The ordinal the ID is expected to map to
+     */
+    public void remove(String id, int ordinal) {
+        long numeric = parseNumericId(id);
+        if (numeric >= 0) {
+            if (numericIds.get(numeric) == ordinal) {
+                numericIds.remove(numeric);
+            }
+        } else {
+            otherIds.remove(id, ordinal);
+        }
+    }
+
+    public int size() {
+        return numericIds.size() + otherIds.size();
+    }
+
+    /**
+     * Parses a canonical non-negative decimal ID. IDs with leading zeros, signs or
+     * more than 18 digits are treated as non-numeric so that "01" and "1" stay
+     * distinct keys.
+     *
+     * @param id The product ID
+     * @return The numeric value, or -1 if the ID is not a canonical number
+     */
+    static long parseNumericId(String id) {
+        int length = id.length();
+        if (length == 0 || length > 18 || (length > 1 && id.charAt(0) == '0')) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,51 @@
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Relevance score for a product matched by a full-text query. The score adds up
+ * three parts:
+ * <ul>
+ * <li>match position: 1 / (1 + p), where p is where the first query term that
+ * occurs in the name starts; 0 if only the category matched</li>
+ * <li>name length: 1 / (1 + length / 10), so shorter, more specific names win
+ * ties</li>
+ * <li>category boost: a caller-supplied bonus per category, 0 by default</li>
+ * </ul>
+ */
+public class ProductRanker {
+    private final List<String> terms;
+    private final Map<String, Double> categoryBoosts;
+
+    /**
+     * @param query          The query the products were matched with
+     * @param categoryBoosts Extra score per category; may be empty
+     */
+    public ProductRanker(String query, Map<String, Double> categoryBoosts) {
+        this.terms = InvertedIndex.tokenize(query);
+        this.categoryBoosts = categoryBoosts;
+    }
+
+    public ProductRanker(String query) {
+        this(query, Collections.emptyMap());
+    }
+
+    /**
+     * @param product A matched product
+     * @return Its relevance; higher is better
+     */
+    public double score(Product product) {
+        String name = product.name.toLowerCase(Locale.ROOT);
+        int position = -1;
+        for (String term : terms) {
+            int at = name.indexOf(term);
+            if (at != -1 && (position == -1 || at < position)) {
+                position = at;
+            }
+        }
+        double score = position == -1 ? 0 : 1.0 / (1 + position);
+        score += 1.0 / (1 + name.length() / 10.0);
+        return score + categoryBoosts.getOrDefault(product.category, 0.0);
+    }
+}
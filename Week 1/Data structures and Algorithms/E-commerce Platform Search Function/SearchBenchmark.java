@@ -0,0 +1,180 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Micro-benchmark harness for the product search algorithms. It has no external
+ * dependencies, so it runs the same way as the rest of this module:
+ *
+ * <pre>
+ * javac *.java
+ * java -Xmx8g SearchBenchmark [sizes] [hitRatio] [warmupMs] [measureMs]
+ * java -Xmx8g SearchBenchmark 1000,10000,100000,1000000,10000000 0.5 1000 2000
+ * </pre>
+ *
+ * Each benchmark runs over a fixed array of queries that mixes hits and misses
+ * at the given ratio and varies the letter case of names. After a warmup phase
+ * it reports throughput, average latency and bytes allocated per operation (the
+ * equivalent of JMH's -prof gc), measured on the benchmark thread.
+ */
+public class SearchBenchmark {
+    private static final int QUERIES = 1024;
+    private static final String[] CATEGORIES = { "Electronics", "Home Appliances", "Books", "Toys", "Garden",
+            "Sports", "Clothing", "Beauty", "Grocery", "Automotive" };
+
+    // Written by every benchmark so the JIT cannot drop the work
+    static volatile int sink;
+
+    public static void main(String[] args) {
+        String sizes = args.length > 0 ? args[0] : "1000,10000,100000,1000000";
+        double hitRatio = args.length > 1 ? Double.parseDouble(args[1]) : 0.5;
+        long warmupMs = args.length > 2 ? Long.parseLong(args[2]) : 500;
+        long measureMs = args.length > 3 ? Long.parseLong(args[3]) : 1000;
+
+        System.out.printf("%-28s %10s %14s %14s %12s%n", "Benchmark", "Size", "ops/s", "ns/op", "B/op");
+        for (String size : sizes.split(",")) {
+            int n = Integer.parseInt(size.trim());
+            run(n, hitRatio, warmupMs, measureMs);
+        }
+    }
+
+    private static void run(int n, double hitRatio, long warmupMs, long measureMs) {
+        Random random = new Random(42);
+        ArrayList<Product> products = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            products.add(new Product(Integer.toString(i), CATEGORIES[random.nextInt(CATEGORIES.length)], name(i)));
+        }
+        // Shuffle so neither the list nor the IDs start out sorted by name
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Product swap = products.get(i);
+            products.set(i, products.get(j));
+            products.set(j, swap);
+        }
+
+        String[] ids = new String[QUERIES];
+        String[] names = new String[QUERIES];
+        String[] prefixes = new String[QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            boolean hit = random.nextDouble() < hitRatio;
+            int target = hit ? random.nextInt(n) : n + random.nextInt(n);
+            // New String instances, so reference comparison cannot succeed
+            ids[q] = new String(Integer.toString(target));
+            String name = name(target);
+            switch (q % 3) {
+                case 0 -> names[q] = name;
+                case 1 -> names[q] = name.toLowerCase(Locale.ROOT);
+                default -> names[q] = name.toUpperCase(Locale.ROOT);
+            }
+            prefixes[q] = names[q].substring(0, Math.min(names[q].length(), 8));
+        }
+
+        ProductCatalog catalog = new ProductCatalog(products);
+        ColumnarProductStore columns = ColumnarProductStore.of(products);
+        ArrayList<Product> unsorted = new ArrayList<>(products);
+
+        measure("linearSearch", n, warmupMs, measureMs, q -> App.linearSearch(products, ids[q]));
+        // Restore an unsorted list before each call, outside the timed region, so
+        // the sort inside binarySearch is paid in full, as it is for a caller's list
+        measure("binarySearch (sort + search)", n, warmupMs, measureMs, q -> {
+            products.clear();
+            products.addAll(unsorted);
+        }, q -> App.binarySearch(products, names[q]));
+        measure("catalog.findById", n, warmupMs, measureMs, q -> identity(catalog.findById(ids[q])));
+        measure("catalog.findByName", n, warmupMs, measureMs, q -> identity(catalog.findByName(names[q])));
+        measure("catalog.autocomplete(k=10)", n, warmupMs, measureMs, q -> catalog.autocomplete(prefixes[q], 10).size());
+        measure("catalog.fuzzySearch(d=1)", n, warmupMs, measureMs, q -> catalog.fuzzySearch(names[q], 1).size());
+        // Every generated name contains "item", so this ranks the whole catalog
+        measure("catalog.rankedSearch(k=20)", n, warmupMs, measureMs,
+                q -> catalog.rankedSearch(names[q], 20, Collections.emptyMap()).size());
+        measure("columnar.linearSearch", n, warmupMs, measureMs, q -> columns.linearSearch(ids[q]));
+        measure("columnar.binarySearch", n, warmupMs, measureMs, q -> columns.binarySearch(names[q]));
+    }
+
+    private static void measure(String label, int n, long warmupMs, long measureMs, IntUnaryOperator op) {
+        long warmupStart = System.nanoTime();
+        long warmupOps = loop(op, warmupMs * 1_000_000L, 0);
+        // Check the clock about once per microsecond, but after every operation
+        // for slow ones
+        long nanosPerOp = Math.max(1, (System.nanoTime() - warmupStart) / warmupOps);
+        int checkMask = Integer.highestOneBit((int) Math.max(1, 1000 / nanosPerOp)) - 1;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        long ops = loop(op, measureMs * 1_000_000L, checkMask);
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        report(label, n, ops, elapsed, allocated);
+    }
+
+    // Same as above, but runs setup before every operation and leaves it out of
+    // the time and allocation figures. Each operation is timed on its own, so this
+    // only suits operations far slower than a clock read.
+    private static void measure(String label, int n, long warmupMs, long measureMs, IntConsumer setup,
+            IntUnaryOperator op) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        timedLoop(threads, setup, op, warmupMs * 1_000_000L, new long[3]);
+        long[] totals = new long[3];
+        timedLoop(threads, setup, op, measureMs * 1_000_000L, totals);
+        report(label, n, totals[0], totals[1], totals[2]);
+    }
+
+    private static void report(String label, int n, long ops, long elapsedNanos, long allocatedBytes) {
+        System.out.printf("%-28s %10d %14.1f %14.1f %12.1f%n", label, n, ops * 1e9 / elapsedNanos,
+                (double) elapsedNanos / ops, (double) allocatedBytes / ops);
+    }
+
+    // Runs setup and the operation over the query array until the operations
+    // alone have used up the time budget. Adds the number of operations, their
+    // nanoseconds and the bytes they allocated to totals[0], [1] and [2].
+    private static void timedLoop(com.sun.management.ThreadMXBean threads, IntConsumer setup, IntUnaryOperator op,
+            long budgetNanos, long[] totals) {
+        int result = 0;
+        do {
+            for (int q = 0; q < QUERIES && totals[1] < budgetNanos; q++) {
+                setup.accept(q);
+                long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+                long start = System.nanoTime();
+                result += op.applyAsInt(q);
+                totals[1] += System.nanoTime() - start;
+                totals[2] += threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+                totals[0]++;
+            }
+        } while (totals[1] < budgetNanos);
+        sink = result;
+    }
+
+    // Runs over the query array until the time budget is used up, checking the
+    // clock whenever (ops & checkMask) == 0; at least one operation always runs
+    private static long loop(IntUnaryOperator op, long budgetNanos, int checkMask) {
+        long deadline = System.nanoTime() + budgetNanos;
+        long ops = 0;
+        int result = 0;
+        do {
+            for (int q = 0; q < QUERIES; q++) {
+                result += op.applyAsInt(q);
+                ops++;
+                if ((ops & checkMask) == 0 && System.nanoTime() >= deadline) {
+                    sink = result;
+                    return ops;
+                }
+            }
+        } while (System.nanoTime() < deadline);
+        sink = result;
+        return ops;
+    }
+
+    private static int identity(Product product) {
+        return product == null ? -1 : System.identityHashCode(product);
+    }
+
+    // Distinct name for every index; the multiplication scatters names across the
+    // alphabet so sorted order differs from index order
+    private static String name(int i) {
+        return "Item " + Integer.toUnsignedString(i * 0x9E3779B1, 36);
+    }
+}
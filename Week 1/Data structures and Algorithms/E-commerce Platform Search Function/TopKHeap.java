@@ -0,0 +1,106 @@
+/**
+ * Keeps the k highest-scoring ordinals seen so far in a fixed-size binary
+ * min-heap. The weakest kept entry sits at the root, so each new candidate costs
+ * one comparison when it loses and O(log k) when it wins; memory stays O(k) no
+ * matter how many candidates are offered, and the full candidate set is never
+ * sorted.
+ */
+public class TopKHeap {
+    private final double[] scores;
+    private final int[] ordinals;
+    private int size;
+
+    /**
+     * @param k Number of entries to keep
+     */
+    public TopKHeap(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative: " + k);
+        }
+        scores = new double[k];
+        ordinals = new int[k];
+    }
+
+    /**
+     * Offers a candidate. Ties are broken in favour of the lower ordinal.
+     *
+     * @param ordinal The product ordinal
+     * @param score   Its score; higher is better
+     */
+    public void offer(int ordinal, double score) {
+        if (size < scores.length) {
+            scores[size] = score;
+            ordinals[size] = ordinal;
+            siftUp(size++);
+        } else if (size > 0 && better(score, ordinal, scores[0], ordinals[0])) {
+            scores[0] = score;
+            ordinals[0] = ordinal;
+            siftDown(0);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Empties the heap
+     *
+     * @return The kept ordinals, best first
+     */
+    public int[] drain() {
+        int[] result = new int[size];
+        // Popping the minimum repeatedly yields the entries worst first
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = ordinals[0];
+            size--;
+            scores[0] = scores[size];
+            ordinals[0] = ordinals[size];
+            siftDown(0);
+        }
+        return result;
+    }
+
+    private static boolean better(double score, int ordinal, double otherScore, int otherOrdinal) {
+        return score > otherScore || (score == otherScore && ordinal < otherOrdinal);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(scores[parent], ordinals[parent], scores[i], ordinals[i])) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && better(scores[smallest], ordinals[smallest], scores[left], ordinals[left])) {
+                smallest = left;
+            }
+            if (right < size && better(scores[smallest], ordinals[smallest], scores[right], ordinals[right])) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+        int ordinal = ordinals[a];
+        ordinals[a] = ordinals[b];
+        ordinals[b] = ordinal;
+    }
+}
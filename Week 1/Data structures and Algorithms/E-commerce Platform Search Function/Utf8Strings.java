@@ -0,0 +1,83 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Helpers for comparing UTF-8 strings stored in a ByteBuffer against Java
+ * strings without decoding them first
+ */
+final class Utf8Strings {
+    private Utf8Strings() {
+    }
+
+    /**
+     * @return true if the bytes at [start, start + key.length) equal the key
+     */
+    static boolean equalsAt(ByteBuffer buffer, int start, int length, byte[] key) {
+        if (length != key.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(start + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares stored bytes with a key the same way String.compareToIgnoreCase
+     * does. ASCII bytes are folded in place; the stored string is decoded only if
+     * a non-ASCII character shows up before the two differ.
+     */
+    static int compareIgnoreCase(ByteBuffer buffer, int start, int length, String key) {
+        int max = Math.min(length, key.length());
+        for (int i = 0; i < max; i++) {
+            int b = buffer.get(start + i);
+            char c = key.charAt(i);
+            if (b < 0 || c >= 0x80) {
+                return decode(buffer, start, length).compareToIgnoreCase(key);
+            }
+            int diff = toLowerAscii(b) - toLowerAscii(c);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        if (length > max && buffer.get(start + max) < 0) {
+            return decode(buffer, start, length).compareToIgnoreCase(key);
+        }
+        return length - key.length();
+    }
+
+    static String decode(ByteBuffer buffer, int start, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * FNV-1a hash of a UTF-8 byte range
+     */
+    static int hash(ByteBuffer buffer, int start, int length) {
+        int hash = 0x811C9DC5;
+        for (int i = 0; i < length; i++) {
+            hash = (hash ^ (buffer.get(start + i) & 0xFF)) * 0x01000193;
+        }
+        return hash;
+    }
+
+    /**
+     * FNV-1a hash of a byte array, consistent with
+     * {@link #hash(ByteBuffer, int, int)}
+     */
+    static int hash(byte[] bytes) {
+        int hash = 0x811C9DC5;
+        for (byte b : bytes) {
+            hash = (hash ^ (b & 0xFF)) * 0x01000193;
+        }
+        return hash;
+    }
+
+    private static int toLowerAscii(int c) {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+}
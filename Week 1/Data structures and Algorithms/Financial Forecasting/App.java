@@ -1,10 +1,14 @@
 package w1;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 public class App {
     /**
      * Main method to demonstrate the financial forecasting tool
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         // Example parameters
         double initialValue = 1000.0;
         double growthRate = 0.05; // 5% growth rate
@@ -14,22 +18,56 @@ public class App {
         double futureValue = calculateFutureValue(initialValue, growthRate, periods);
         System.out.println("Future value after " + periods + " periods: $" + String.format("%.2f", futureValue));
 
-        // Show step-by-step calculation
+        // Show step-by-step calculation (whole series in one pass)
         System.out.println("\nStep-by-step calculation:");
+        double[] series = ForecastEngine.projectSeries(initialValue, growthRate, periods);
         for (int i = 0; i <= periods; i++) {
-            double value = calculateFutureValue(initialValue, growthRate, i);
-            System.out.println("Period " + i + ": $" + String.format("%.2f", value));
+            System.out.println("Period " + i + ": $" + String.format("%.2f", series[i]));
         }
 
         // Demonstrate the optimized version with memoization
         System.out.println("\nUsing memoization:");
         double[] memo = new double[periods + 1];
         for (int i = 0; i < memo.length; i++) {
-            memo[i] = -1; // Initialize with a sentinel value
+            memo[i] = Double.NaN; // Initialize with a sentinel no real value can take
         }
         double optimizedValue = calculateFutureValueMemoized(initialValue, growthRate, periods, memo);
         System.out.println(
                 "Future value (optimized) after " + periods + " periods: $" + String.format("%.2f", optimizedValue));
+
+        // Demonstrate the closed-form and batch versions
+        System.out.println("\nUsing the closed form:");
+        System.out.println("Future value (closed form) after " + periods + " periods: $"
+                + String.format("%.2f", ForecastEngine.futureValue(initialValue, growthRate, periods)));
+        double[] batch = ForecastEngine.futureValues(new double[] { 1000.0, 2500.0, 500.0 },
+                new double[] { 0.05, 0.03, 0.10 }, new int[] { 10, 20, 10 });
+        System.out.println("Batch of 3 forecasts: $" + String.format("%.2f", batch[0]) + ", $"
+                + String.format("%.2f", batch[1]) + ", $" + String.format("%.2f", batch[2]));
+
+        // Monte Carlo simulation with a random rate every period
+        System.out.println("\nMonte Carlo simulation (1,000,000 paths, 5% +/- 10% per period, lognormal):");
+        MonteCarloForecast.Result simulated = new MonteCarloForecast(initialValue, growthRate, 0.10, periods,
+                MonteCarloForecast.Distribution.LOGNORMAL).simulate(1_000_000, 42);
+        System.out.println("P5: $" + String.format("%.2f", simulated.p5()) + ", P50: $"
+                + String.format("%.2f", simulated.p50()) + ", P95: $" + String.format("%.2f", simulated.p95()));
+
+        // Variable-rate schedule with O(1) lookups per period
+        System.out.println("\nVariable-rate schedule (5%, 7%, -2%, 4%):");
+        RateSchedule schedule = new RateSchedule(0.05, 0.07, -0.02, 0.04);
+        for (int i = 0; i <= schedule.periods(); i++) {
+            System.out.println("Period " + i + ": $" + String.format("%.2f", schedule.valueAt(initialValue, i)));
+        }
+
+        // Streaming a scenario file through the engine
+        System.out.println("\nScenario file processing:");
+        Path scenarios = Files.createTempFile("scenarios", ".csv");
+        Path results = Files.createTempFile("results", ".csv");
+        Files.writeString(scenarios, "initialValue,growthRate,periods\n1000,0.05,10\n2500,0.03,20\n500,0.1,10\n");
+        long processed = ScenarioFileProcessor.process(scenarios, results);
+        System.out.println("Processed " + processed + " scenarios; first result line: "
+                + Files.readAllLines(results).get(1));
+        Files.delete(scenarios);
+        Files.delete(results);
     }
 
     /**
@@ -56,13 +94,14 @@ public class App {
      * @param initialValue The starting value
      * @param growthRate   The rate of growth per period
      * @param periods      The number of periods to calculate for
-     * @param memo         Array to store previously calculated values
+     * @param memo         Array to store previously calculated values, filled with
+     *                     Double.NaN for values not calculated yet
      * @return The calculated future value
      */
     public static double calculateFutureValueMemoized(double initialValue, double growthRate, int periods,
             double[] memo) {
         // If value is already calculated, return it
-        if (memo[periods] != -1) {
+        if (!Double.isNaN(memo[periods])) {
             return memo[periods];
         }
 
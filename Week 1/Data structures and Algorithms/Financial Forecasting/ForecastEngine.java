@@ -0,0 +1,81 @@
+package w1;
+
+/**
+ * Non-recursive future value calculations. Unlike
+ * {@link App#calculateFutureValue}, nothing here grows the call stack with the
+ * number of periods, and a whole projection table is produced in one pass.
+ */
+public class ForecastEngine {
+    private ForecastEngine() {
+    }
+
+    /**
+     * Closed-form future value: initialValue * (1 + growthRate) ^ periods
+     *
+     * @param initialValue The starting value
+     * @param growthRate   The rate of growth per period (e.g., 0.05 for 5%)
+     * @param periods      The number of periods to calculate for
+     * @return The calculated future value
+     */
+    public static double futureValue(double initialValue, double growthRate, int periods) {
+        if (periods < 0) {
+            throw new IllegalArgumentException("Periods cannot be negative: " + periods);
+        }
+        return initialValue * Math.pow(1 + growthRate, periods);
+    }
+
+    /**
+     * Computes the value at every period from 0 to periods in a single O(n) pass,
+     * each entry being the previous one times (1 + growthRate)
+     *
+     * @param initialValue The starting value
+     * @param growthRate   The rate of growth per period
+     * @param periods      The last period to calculate
+     * @return Array of length periods + 1 where element i is the value at period i
+     */
+    public static double[] projectSeries(double initialValue, double growthRate, int periods) {
+        if (periods < 0) {
+            throw new IllegalArgumentException("Periods cannot be negative: " + periods);
+        }
+        double[] series = new double[periods + 1];
+        double factor = 1 + growthRate;
+        double value = initialValue;
+        series[0] = value;
+        for (int i = 1; i <= periods; i++) {
+            value *= factor;
+            series[i] = value;
+        }
+        return series;
+    }
+
+    /**
+     * Evaluates many independent (initialValue, growthRate, periods) tuples. The
+     * inputs are parallel primitive arrays, so nothing is boxed.
+     *
+     * @param initialValues Starting value of each tuple
+     * @param growthRates   Growth rate of each tuple
+     * @param periods       Period count of each tuple
+     * @param results       Receives the future value of each tuple
+     */
+    public static void futureValues(double[] initialValues, double[] growthRates, int[] periods, double[] results) {
+        int n = initialValues.length;
+        if (growthRates.length != n || periods.length != n || results.length < n) {
+            throw new IllegalArgumentException("Input arrays must have the same length and results must fit them");
+        }
+        for (int i = 0; i < n; i++) {
+            results[i] = futureValue(initialValues[i], growthRates[i], periods[i]);
+        }
+    }
+
+    /**
+     * Same as {@link #futureValues(double[], double[], int[], double[])} but
+     * allocates the result array
+     *
+     * @return The future value of each tuple
+     */
+    public static double[] futureValues(double[] initialValues, double[] growthRates, int[] periods) {
+        double[] results = new double[initialValues.length];
+        futureValues(initialValues, growthRates, periods, results);
+        return results;
+    }
+}
@@ -0,0 +1,101 @@
+package w1;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Sensitivity grid: the future value for every combination of growth rate and
+ * period count. When VectorForecastGrid (compiled from the vector/ source root)
+ * is on the class path and the JVM runs with the incubating Vector API
+ * (--add-modules jdk.incubator.vector), the grid is filled several rates per
+ * instruction; otherwise the scalar loop below is used. Both compute
+ * (1 + rate) ^ periods by binary exponentiation, so they return identical
+ * results.
+ */
+public class ForecastGrid {
+    // VectorForecastGrid.evaluate, looked up by name so this class compiles and
+    // links without the incubator module; null when the vector path is unavailable
+    private static final MethodHandle VECTOR_EVALUATE = findVectorEvaluate();
+    static final boolean VECTOR_API_AVAILABLE = VECTOR_EVALUATE != null;
+
+    private ForecastGrid() {
+    }
+
+    /**
+     * Evaluates the grid with the fastest implementation available
+     *
+     * @param initialValue The starting value
+     * @param rates        Growth rates to evaluate
+     * @param periods      Period counts to evaluate, none negative
+     * @return Row-major grid: element [p * rates.length + r] is the future value
+     *         for periods[p] and rates[r]
+     */
+    public static double[] evaluate(double initialValue, double[] rates, int[] periods) {
+        double[] grid = new double[Math.multiplyExact(rates.length, periods.length)];
+        if (VECTOR_API_AVAILABLE) {
+            try {
+                VECTOR_EVALUATE.invokeExact(initialValue, rates, periods, grid);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        } else {
+            evaluateScalar(initialValue, rates, periods, grid);
+        }
+        return grid;
+    }
+
+    /**
+     * Scalar implementation, also used for the tail of each row by the vector
+     * version
+     *
+     * @param initialValue The starting value
+     * @param rates        Growth rates to evaluate
+     * @param periods      Period counts to evaluate, none negative
+     * @param grid         Receives the row-major results
+     */
+    public static void evaluateScalar(double initialValue, double[] rates, int[] periods, double[] grid) {
+        for (int p = 0; p < periods.length; p++) {
+            checkPeriods(periods[p]);
+            int row = p * rates.length;
+            for (int r = 0; r < rates.length; r++) {
+                grid[row + r] = initialValue * power(1 + rates[r], periods[p]);
+            }
+        }
+    }
+
+    /**
+     * Binary exponentiation: O(log n) multiplications
+     */
+    static double power(double base, int exponent) {
+        double result = 1;
+        while (exponent > 0) {
+            if ((exponent & 1) != 0) {
+                result *= base;
+            }
+            base *= base;
+            exponent >>>= 1;
+        }
+        return result;
+    }
+
+    private static MethodHandle findVectorEvaluate() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            return MethodHandles.lookup().findStatic(Class.forName("w1.VectorForecastGrid"), "evaluate",
+                    MethodType.methodType(void.class, double.class, double[].class, int[].class, double[].class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    static void checkPeriods(int periods) {
+        if (periods < 0) {
+            throw new IllegalArgumentException("Periods cannot be negative: " + periods);
+        }
+    }
+}
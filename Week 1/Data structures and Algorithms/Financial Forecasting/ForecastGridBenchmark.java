@@ -0,0 +1,72 @@
+package w1;
+
+import java.util.Arrays;
+
+/**
+ * Compares ways of filling a rates x periods sensitivity grid:
+ * <ol>
+ * <li>calling the recursive {@link App#calculateFutureValue} for every cell</li>
+ * <li>the scalar {@link ForecastGrid#evaluateScalar} loop</li>
+ * <li>{@link ForecastGrid#evaluate}, which uses the Vector API when it is
+ * available</li>
+ * </ol>
+ *
+ * <pre>
+ * javac --add-modules jdk.incubator.vector -d out *.java vector/*.java
+ * java --add-modules jdk.incubator.vector -cp out w1.ForecastGridBenchmark [rates] [maxPeriods] [rounds]
+ * </pre>
+ */
+public class ForecastGridBenchmark {
+    // Written by every benchmark so the JIT cannot drop the work
+    static volatile double sink;
+
+    public static void main(String[] args) {
+        int rateCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int maxPeriods = args.length > 1 ? Integer.parseInt(args[1]) : 600;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        double[] rates = new double[rateCount];
+        for (int r = 0; r < rateCount; r++) {
+            rates[r] = -0.05 + 0.15 * r / rateCount;
+        }
+        int[] periods = new int[maxPeriods];
+        for (int p = 0; p < maxPeriods; p++) {
+            periods[p] = p + 1;
+        }
+        double[] grid = new double[rateCount * maxPeriods];
+
+        System.out.println("Grid: " + rateCount + " rates x " + maxPeriods + " periods, Vector API "
+                + (ForecastGrid.VECTOR_API_AVAILABLE ? "enabled" : "not available"));
+        double recursive = time(rounds, () -> {
+            for (int p = 0; p < periods.length; p++) {
+                for (int r = 0; r < rates.length; r++) {
+                    grid[p * rates.length + r] = App.calculateFutureValue(1000.0, rates[r], periods[p]);
+                }
+            }
+        });
+        double[] expected = new double[grid.length];
+        double scalar = time(rounds, () -> ForecastGrid.evaluateScalar(1000.0, rates, periods, expected));
+        double[][] vectorGrid = new double[1][];
+        double vector = time(rounds, () -> vectorGrid[0] = ForecastGrid.evaluate(1000.0, rates, periods));
+        if (!Arrays.equals(expected, vectorGrid[0])) {
+            throw new IllegalStateException("Vector and scalar grids differ");
+        }
+        sink = grid[grid.length - 1] + expected[0] + vectorGrid[0][0];
+
+        System.out.printf("%-32s %10.1f ms%n", "recursive calculateFutureValue", recursive);
+        System.out.printf("%-32s %10.1f ms%n", "ForecastGrid.evaluateScalar", scalar);
+        System.out.printf("%-32s %10.1f ms  (%.1fx vs scalar)%n", "ForecastGrid.evaluate", vector, scalar / vector);
+    }
+
+    // Runs one warmup round, then returns the best of the timed rounds
+    private static double time(int rounds, Runnable task) {
+        task.run();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e6;
+    }
+}
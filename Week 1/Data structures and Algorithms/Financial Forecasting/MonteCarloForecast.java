@@ -0,0 +1,155 @@
+package w1;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Stochastic forecast: instead of one fixed growth rate, every period of every
+ * simulated path draws its own random rate. Paths are simulated in fixed-size
+ * chunks across all cores; each chunk gets its own {@link SplittableRandom}
+ * split from the seed before any work starts, so the result for a given seed is
+ * the same however many threads run it.
+ */
+public class MonteCarloForecast {
+    // Paths per parallel task
+    static final int CHUNK_SIZE = 16_384;
+
+    /**
+     * How the per-period rate is drawn
+     */
+    public enum Distribution {
+        /** rate = meanRate + volatility * Z */
+        NORMAL,
+        /**
+         * growth factor = exp(ln(1 + meanRate) - volatility^2 / 2 + volatility * Z),
+         * which never drops below zero and averages 1 + meanRate
+         */
+        LOGNORMAL
+    }
+
+    private final double initialValue;
+    private final double meanRate;
+    private final double volatility;
+    private final int periods;
+    private final Distribution distribution;
+
+    /**
+     * @param initialValue The starting value
+     * @param meanRate     The average growth rate per period (e.g., 0.05 for 5%)
+     * @param volatility   Standard deviation of the per-period rate
+     * @param periods      The number of periods to simulate
+     * @param distribution How each period's rate is drawn
+     */
+    public MonteCarloForecast(double initialValue, double meanRate, double volatility, int periods,
+            Distribution distribution) {
+        if (periods < 0) {
+            throw new IllegalArgumentException("Periods cannot be negative: " + periods);
+        }
+        if (volatility < 0) {
+            throw new IllegalArgumentException("Volatility cannot be negative: " + volatility);
+        }
+        this.initialValue = initialValue;
+        this.meanRate = meanRate;
+        this.volatility = volatility;
+        this.periods = periods;
+        this.distribution = distribution;
+    }
+
+    /**
+     * Simulates the given number of paths in parallel
+     *
+     * @param paths Number of paths to simulate
+     * @param seed  Seed for the random rates; equal seeds give equal results
+     * @return The distribution of future values
+     */
+    public Result simulate(int paths, long seed) {
+        if (paths <= 0) {
+            throw new IllegalArgumentException("Paths must be positive: " + paths);
+        }
+        int chunks = (paths + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) {
+            randoms[c] = root.split();
+        }
+        double[] values = new double[paths];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int from = c * CHUNK_SIZE;
+            int to = Math.min(paths, from + CHUNK_SIZE);
+            simulateChunk(randoms[c], values, from, to);
+        });
+        Arrays.parallelSort(values);
+        return new Result(values);
+    }
+
+    private void simulateChunk(SplittableRandom random, double[] values, int from, int to) {
+        double logDrift = Math.log1p(meanRate) - volatility * volatility / 2;
+        for (int path = from; path < to; path++) {
+            double value = initialValue;
+            if (distribution == Distribution.NORMAL) {
+                for (int p = 0; p < periods; p++) {
+                    value *= 1 + meanRate + volatility * random.nextGaussian();
+                }
+            } else {
+                // Multiplying lognormal factors is adding their logs
+                double logGrowth = 0;
+                for (int p = 0; p < periods; p++) {
+                    logGrowth += logDrift + volatility * random.nextGaussian();
+                }
+                value *= Math.exp(logGrowth);
+            }
+            values[path] = value;
+        }
+    }
+
+    /**
+     * Sorted future values of all simulated paths
+     */
+    public static class Result {
+        private final double[] sorted;
+
+        Result(double[] sorted) {
+            this.sorted = sorted;
+        }
+
+        /**
+         * @param percentile Between 0 and 100
+         * @return The future value below which that share of paths ended, using
+         *         linear interpolation between the closest paths
+         */
+        public double percentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+            }
+            double position = percentile / 100 * (sorted.length - 1);
+            int lower = (int) position;
+            int upper = Math.min(lower + 1, sorted.length - 1);
+            return sorted[lower] + (sorted[upper] - sorted[lower]) * (position - lower);
+        }
+
+        public double p5() {
+            return percentile(5);
+        }
+
+        public double p50() {
+            return percentile(50);
+        }
+
+        public double p95() {
+            return percentile(95);
+        }
+
+        public double mean() {
+            double sum = 0;
+            for (double value : sorted) {
+                sum += value;
+            }
+            return sum / sorted.length;
+        }
+
+        public int paths() {
+            return sorted.length;
+        }
+    }
+}
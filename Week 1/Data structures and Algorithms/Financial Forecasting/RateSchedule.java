@@ -0,0 +1,115 @@
+package w1;
+
+import java.util.Arrays;
+
+/**
+ * Growth schedule where every period has its own rate. The cumulative growth
+ * factor up to each period is stored as a running sum of log(1 + rate), so the
+ * value at any period is a single lookup and exp() instead of a product over all
+ * earlier periods. Summing logs with compensated (Kahan) summation keeps long
+ * schedules accurate where multiplying thousands of factors would drift or
+ * underflow.
+ *
+ * <p>
+ * A rate of -1 wipes the value out and has no logarithm, so the running sum
+ * restarts after it; a factor over a range that spans such a period is 0.
+ */
+public class RateSchedule {
+    // cumulativeLog[i] = sum of log(1 + rate) over the periods after lastWipeOut[i]
+    // up to i; cumulativeLog[0] = 0
+    private double[] cumulativeLog = new double[16];
+    // lastWipeOut[i] = latest period up to i with a rate of -1, or 0 if there is none
+    private int[] lastWipeOut = new int[16];
+    private double compensation;
+    private int periods;
+
+    public RateSchedule() {
+    }
+
+    /**
+     * @param rates The rate of each period, in order
+     */
+    public RateSchedule(double... rates) {
+        cumulativeLog = new double[rates.length + 1];
+        lastWipeOut = new int[rates.length + 1];
+        for (double rate : rates) {
+            append(rate);
+        }
+    }
+
+    /**
+     * Adds one more period at the end of the schedule in O(1) amortized time
+     *
+     * @param rate The growth rate of the new period; -1 wipes the value out
+     * @return This schedule
+     */
+    public RateSchedule append(double rate) {
+        if (rate < -1 || Double.isNaN(rate)) {
+            throw new IllegalArgumentException("Rate must be at least -1: " + rate);
+        }
+        if (periods + 1 == cumulativeLog.length) {
+            cumulativeLog = Arrays.copyOf(cumulativeLog, cumulativeLog.length * 2);
+            lastWipeOut = Arrays.copyOf(lastWipeOut, lastWipeOut.length * 2);
+        }
+        if (rate == -1) {
+            cumulativeLog[periods + 1] = 0;
+            lastWipeOut[periods + 1] = periods + 1;
+            compensation = 0;
+        } else {
+            double sum = cumulativeLog[periods];
+            double corrected = Math.log1p(rate) - compensation;
+            double next = sum + corrected;
+            compensation = (next - sum) - corrected;
+            cumulativeLog[periods + 1] = next;
+            lastWipeOut[periods + 1] = lastWipeOut[periods];
+        }
+        periods++;
+        return this;
+    }
+
+    /**
+     * Value after the given number of periods, in O(1)
+     *
+     * @param initialValue The starting value
+     * @param period       Number of periods elapsed, from 0 to {@link #periods()}
+     * @return The value at that period
+     */
+    public double valueAt(double initialValue, int period) {
+        return initialValue * growthFactor(period);
+    }
+
+    /**
+     * @param period Number of periods elapsed, from 0 to {@link #periods()}
+     * @return Product of (1 + rate) over the first period periods
+     */
+    public double growthFactor(int period) {
+        if (period < 0 || period > periods) {
+            throw new IndexOutOfBoundsException("Period " + period + " outside 0.." + periods);
+        }
+        return lastWipeOut[period] > 0 ? 0 : Math.exp(cumulativeLog[period]);
+    }
+
+    /**
+     * Growth factor between two periods, e.g. for the value at period to given the
+     * value at period from
+     *
+     * @param from Earlier period
+     * @param to   Later period
+     * @return Product of (1 + rate) over periods from + 1 .. to; 0 if any of them
+     *         has a rate of -1
+     */
+    public double growthFactor(int from, int to) {
+        if (from < 0 || from > to || to > periods) {
+            throw new IndexOutOfBoundsException("Periods " + from + ".." + to + " outside 0.." + periods);
+        }
+        // Without a wipe-out in between, both sums restart at the same period
+        return lastWipeOut[to] > from ? 0 : Math.exp(cumulativeLog[to] - cumulativeLog[from]);
+    }
+
+    /**
+     * @return Number of periods in the schedule
+     */
+    public int periods() {
+        return periods;
+    }
+}
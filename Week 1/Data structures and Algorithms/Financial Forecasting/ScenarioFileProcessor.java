@@ -0,0 +1,141 @@
+package w1;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
+
+/**
+ * Streams forecast scenarios from a CSV file through {@link ForecastEngine} and
+ * writes the results to another CSV file.
+ * <p>
+ * Input lines are "initialValue,growthRate,periods" after a header line; output
+ * lines repeat them with a futureValue column. Scenarios are read into two
+ * fixed-size chunks of primitive arrays that take turns: while one chunk is
+ * evaluated in parallel on the common fork-join pool, the next one is read, and
+ * results are written as soon as their chunk is done. Memory use depends only
+ * on the chunk size, never on the file size.
+ */
+public class ScenarioFileProcessor {
+    static final int DEFAULT_CHUNK_SIZE = 65_536;
+    static final String OUTPUT_HEADER = "initialValue,growthRate,periods,futureValue";
+
+    private ScenarioFileProcessor() {
+    }
+
+    /**
+     * Processes a scenario file with the default chunk size
+     *
+     * @param input  The scenario CSV file
+     * @param output The result CSV file to create or replace
+     * @return Number of scenarios processed
+     * @throws IOException If reading or writing fails, or a line is malformed
+     */
+    public static long process(Path input, Path output) throws IOException {
+        return process(input, output, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param input     The scenario CSV file
+     * @param output    The result CSV file to create or replace
+     * @param chunkSize Scenarios per chunk
+     * @return Number of scenarios processed
+     * @throws IOException If reading or writing fails, or a line is malformed
+     */
+    public static long process(Path input, Path output, int chunkSize) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        Chunk current = new Chunk(chunkSize);
+        Chunk next = new Chunk(chunkSize);
+        long total = 0;
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+                BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            reader.readLine();
+            writer.write(OUTPUT_HEADER);
+            writer.newLine();
+            long lineNumber = current.read(reader, 1);
+            while (current.size > 0) {
+                Chunk evaluating = current;
+                CompletableFuture<Void> evaluation = CompletableFuture.runAsync(evaluating::evaluate);
+                lineNumber = next.read(reader, lineNumber);
+                try {
+                    evaluation.join();
+                } catch (CompletionException e) {
+                    throw new IOException("Failed to evaluate scenarios", e.getCause());
+                }
+                evaluating.write(writer);
+                total += evaluating.size;
+                current = next;
+                next = evaluating;
+            }
+        }
+        return total;
+    }
+
+    // One batch of scenarios in parallel primitive arrays, reused for every batch
+    private static final class Chunk {
+        final double[] initialValues;
+        final double[] growthRates;
+        final int[] periods;
+        final double[] results;
+        final StringBuilder line = new StringBuilder(64);
+        int size;
+
+        Chunk(int capacity) {
+            initialValues = new double[capacity];
+            growthRates = new double[capacity];
+            periods = new int[capacity];
+            results = new double[capacity];
+        }
+
+        // Fills the chunk from the reader; returns the number of the last line read
+        long read(BufferedReader reader, long lineNumber) throws IOException {
+            size = 0;
+            String text;
+            while (size < periods.length && (text = reader.readLine()) != null) {
+                lineNumber++;
+                if (text.isEmpty()) {
+                    continue;
+                }
+                int first = text.indexOf(',');
+                int second = first < 0 ? -1 : text.indexOf(',', first + 1);
+                if (second < 0 || text.indexOf(',', second + 1) >= 0) {
+                    throw new IOException("Expected 3 fields on line " + lineNumber);
+                }
+                try {
+                    initialValues[size] = Double.parseDouble(text.substring(0, first));
+                    growthRates[size] = Double.parseDouble(text.substring(first + 1, second));
+                    periods[size] = Integer.parseInt(text.substring(second + 1).trim());
+                } catch (NumberFormatException e) {
+                    throw new IOException("Malformed number on line " + lineNumber + ": " + e.getMessage());
+                }
+                if (periods[size] < 0) {
+                    throw new IOException("Negative periods on line " + lineNumber);
+                }
+                size++;
+            }
+            return lineNumber;
+        }
+
+        void evaluate() {
+            IntStream.range(0, size).parallel().forEach(
+                    i -> results[i] = ForecastEngine.futureValue(initialValues[i], growthRates[i], periods[i]));
+        }
+
+        void write(BufferedWriter writer) throws IOException {
+            for (int i = 0; i < size; i++) {
+                line.setLength(0);
+                line.append(initialValues[i]).append(',').append(growthRates[i]).append(',').append(periods[i])
+                        .append(',').append(results[i]);
+                writer.append(line);
+                writer.newLine();
+            }
+        }
+    }
+}
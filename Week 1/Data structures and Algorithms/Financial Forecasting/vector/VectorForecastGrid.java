@@ -0,0 +1,48 @@
+package w1;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API implementation of {@link ForecastGrid}. Each row of the grid (one
+ * period count) is processed as many rates at a time as the CPU's preferred
+ * vector width holds, and the leftover rates go through the scalar loop.
+ * <p>
+ * Kept in its own source root so the rest of the module compiles without the
+ * incubator module; {@link ForecastGrid} finds this class at run time and falls
+ * back to its scalar loop when it is missing. Needs --add-modules
+ * jdk.incubator.vector at compile and run time.
+ */
+class VectorForecastGrid {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorForecastGrid() {
+    }
+
+    static void evaluate(double initialValue, double[] rates, int[] periods, double[] grid) {
+        int lanes = SPECIES.length();
+        int vectorEnd = SPECIES.loopBound(rates.length);
+        for (int p = 0; p < periods.length; p++) {
+            int n = periods[p];
+            ForecastGrid.checkPeriods(n);
+            int row = p * rates.length;
+            for (int r = 0; r < vectorEnd; r += lanes) {
+                DoubleVector base = DoubleVector.fromArray(SPECIES, rates, r).add(1.0);
+                DoubleVector result = DoubleVector.broadcast(SPECIES, 1.0);
+                // Same binary exponentiation as ForecastGrid.power, all lanes at once.
+                // Every lane shares the exponent, so the mask is all-on or all-off and
+                // selects nothing per lane; it only keeps the multiply unconditional.
+                // With an if instead, C2 merges the vectors across the branch and
+                // stops keeping them in registers, which measured about 12x slower.
+                for (int exponent = n; exponent > 0; exponent >>>= 1) {
+                    result = result.mul(base, SPECIES.maskAll((exponent & 1) != 0));
+                    base = base.mul(base);
+                }
+                result.mul(initialValue).intoArray(grid, row + r);
+            }
+            for (int r = vectorEnd; r < rates.length; r++) {
+                grid[row + r] = initialValue * ForecastGrid.power(1 + rates[r], n);
+            }
+        }
+    }
+}
@@ -1,5 +1,16 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
 public class App {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException, InterruptedException {
         System.out.println("Document Management System using Factory Method Pattern");
         System.out.println("---------------------------------------------------");
 
@@ -34,5 +45,85 @@ public class App {
         wordFactory.openDocument();
         pdfFactory.openDocument();
         excelFactory.openDocument();
+
+        // Looking up factories by format instead of hard-coding them
+        System.out.println("\nUsing DocumentFactoryRegistry:");
+        DocumentFactoryRegistry registry = DocumentFactoryRegistry.getDefault();
+        registry.forFileName("budget.xlsx").openDocument();
+        registry.forMimeType("application/pdf").openDocument();
+
+        // Recycling documents through a pool instead of creating one per open
+        System.out.println("\nUsing pooled DocumentFactory:");
+        PooledDocumentFactory pooledWordFactory = new PooledDocumentFactory(wordFactory, 2);
+        Document first = pooledWordFactory.createDocument();
+        first.open();
+        pooledWordFactory.releaseDocument(first);
+        Document second = pooledWordFactory.createDocument();
+        second.open();
+        pooledWordFactory.releaseDocument(second);
+        System.out.println("Same document reused: " + (first == second));
+        System.out.println("Pool hits: " + pooledWordFactory.hits() + ", misses: " + pooledWordFactory.misses()
+                + ", waits: " + pooledWordFactory.waits());
+
+        // Streaming a document from one file to another through channels,
+        // without holding its content on the heap
+        System.out.println("\nStreaming a PDF document through channels:");
+        Path source = Files.createTempFile("report", ".pdf");
+        Path copy = Files.createTempFile("report-copy", ".pdf");
+        byte[] bytes = new byte[1 << 20];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        Files.write(source, bytes);
+        Document streamed = pdfFactory.createDocument();
+        try (FileChannel in = FileChannel.open(source)) {
+            streamed.load(in);
+        }
+        try (FileChannel out = FileChannel.open(copy, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            streamed.save(out);
+        }
+        System.out.println("Copied " + streamed.size() + " bytes, files match: " + (Files.mismatch(source, copy) == -1));
+        streamed.close();
+        pdfFactory.releaseDocument(streamed);
+        Files.delete(source);
+        Files.delete(copy);
+
+        // Converting a batch of Word files to PDF in a concurrent pipeline
+        System.out.println("\nConverting documents in a pipeline:");
+        Path inputDirectory = Files.createTempDirectory("word");
+        Path outputDirectory = Files.createTempDirectory("pdf");
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            inputs.add(Files.write(inputDirectory.resolve("letter-" + i + ".docx"), bytes));
+        }
+        // Stand-in for a real renderer: copies the content through memory
+        DocumentConverter converter = (from, to) -> {
+            ByteArrayOutputStream content = new ByteArrayOutputStream((int) from.size());
+            from.save(Channels.newChannel(content));
+            to.load(Channels.newChannel(new ByteArrayInputStream(content.toByteArray())));
+        };
+        try (ConversionPipeline pipeline = new ConversionPipeline(registry, converter, 16, 8,
+                Runtime.getRuntime().availableProcessors())) {
+            ConversionPipeline.Report report = pipeline.convert(inputs, "pdf", outputDirectory);
+            try (var outputs = Files.list(outputDirectory)) {
+                System.out.println("Converted " + report.converted() + " documents to PDF, " + report.failed()
+                        + " failed, " + outputs.count() + " files written");
+            }
+            // letter-0.doc would overwrite letter-0.pdf, so the batch is rejected up front
+            inputs.add(Files.write(inputDirectory.resolve("letter-0.doc"), bytes));
+            try {
+                pipeline.convert(inputs, "pdf", outputDirectory);
+            } catch (IllegalArgumentException e) {
+                System.out.println("Rejected batch: letter-0.docx and letter-0.doc both convert to letter-0.pdf");
+            }
+        }
+        for (Path directory : List.of(inputDirectory, outputDirectory)) {
+            try (var files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
     }
 }
@@ -0,0 +1,159 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Base class for documents whose content is kept in a temporary spool file
+ * rather than on the heap, so documents of any size can be loaded and saved.
+ *
+ * <p>
+ * Saving uses {@link FileChannel#transferTo}, which lets the operating system
+ * copy straight from the spool file to a file or socket without passing the
+ * bytes through Java. Loading uses {@link FileChannel#transferFrom} when the
+ * source is a file, and otherwise streams through one reused direct buffer.
+ * The spool file is created on the first load, kept by {@link #reset()} and
+ * {@link #close()} so a pooled document can reuse it, and deleted by
+ * {@link #dispose()}. A document that is loaded must therefore be handed back
+ * with {@link DocumentFactory#releaseDocument} once closed; otherwise its spool
+ * file stays open until the document is garbage collected.
+ *
+ * <p>
+ * Subclasses announce their open, save and close through {@link #report},
+ * which prints to standard output unless {@link #reportTo} says otherwise.
+ */
+public abstract class ChannelDocument implements Document {
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private FileChannel content;
+    private ByteBuffer copyBuffer;
+    private long size;
+    private PrintStream events = System.out;
+
+    @Override
+    public void load(ReadableByteChannel source) throws IOException {
+        FileChannel content = content();
+        content.truncate(0);
+        size = 0;
+        if (source instanceof FileChannel file) {
+            long count = file.size() - file.position();
+            while (size < count) {
+                long transferred = content.transferFrom(file, size, count - size);
+                if (transferred <= 0) {
+                    break;
+                }
+                size += transferred;
+            }
+            return;
+        }
+        if (copyBuffer == null) {
+            copyBuffer = ByteBuffer.allocateDirect(COPY_BUFFER_SIZE);
+        }
+        while (source.read(copyBuffer) >= 0) {
+            copyBuffer.flip();
+            while (copyBuffer.hasRemaining()) {
+                size += content.write(copyBuffer, size);
+            }
+            copyBuffer.clear();
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException If the target is a channel in non-blocking
+     *                                  mode, which could accept nothing and make
+     *                                  the copy spin
+     */
+    @Override
+    public void save(WritableByteChannel target) throws IOException {
+        if (target instanceof SelectableChannel selectable && !selectable.isBlocking()) {
+            throw new IllegalArgumentException("Target channel must be in blocking mode");
+        }
+        long position = 0;
+        while (position < size) {
+            long transferred = content.transferTo(position, size - position, target);
+            if (transferred <= 0) {
+                // The spool file was cut short behind the document's back
+                throw new IOException("Spool file ended after " + position + " of " + size + " bytes");
+            }
+            position += transferred;
+        }
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Empties the document but keeps its spool file and buffer for reuse
+     */
+    @Override
+    public void reset() {
+        if (content != null) {
+            try {
+                content.truncate(0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        size = 0;
+    }
+
+    /**
+     * Ends this use of the document: discards the content but keeps the spool
+     * file, like {@link #reset()}
+     */
+    @Override
+    public void close() {
+        reset();
+    }
+
+    /**
+     * Discards the content and deletes the spool file
+     */
+    @Override
+    public void dispose() {
+        if (content != null) {
+            try {
+                content.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            content = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * @param events Where {@link #report} prints, or null to keep the document
+     *               quiet, as batch jobs do
+     */
+    public void reportTo(PrintStream events) {
+        this.events = events;
+    }
+
+    /**
+     * Prints a lifecycle message, such as "Opening Word document"
+     *
+     * @param message The message to print
+     */
+    protected void report(String message) {
+        if (events != null) {
+            events.println(message);
+        }
+    }
+
+    private FileChannel content() throws IOException {
+        if (content == null) {
+            content = FileChannel.open(Files.createTempFile("document", ".spool"), StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        }
+        return content;
+    }
+}
@@ -0,0 +1,487 @@
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Converts batches of document files from one format to another in three
+ * concurrent stages:
+ *
+ * <ol>
+ * <li>open: finds the factory for each input file in the registry, opens a
+ * document and loads the file into it</li>
+ * <li>transform: opens a document of the target format and runs the
+ * {@link DocumentConverter} into it, then closes the source</li>
+ * <li>save: saves the converted document to the output directory and closes
+ * it</li>
+ * </ol>
+ *
+ * The open and save stages wait on file I/O, so they run on virtual threads;
+ * the transform stage is CPU-bound and runs on a fixed pool of platform
+ * threads. Stages hand documents over through bounded queues, so a slow stage
+ * makes the ones before it wait instead of piling up documents in memory.
+ * Documents come from one {@link PooledDocumentFactory} per format and are
+ * recycled once closed; {@link #close()} disposes of them. The pipeline keeps
+ * them from printing their lifecycle messages.
+ */
+public class ConversionPipeline implements AutoCloseable {
+    // Marks the end of a queue; each worker puts it back for its siblings
+    private static final Job END = new Job(null, null, null);
+
+    private final DocumentFactoryRegistry registry;
+    private final DocumentConverter converter;
+    private final int queueCapacity;
+    private final int ioWorkers;
+    private final int cpuWorkers;
+    private final Map<DocumentFactory, PooledDocumentFactory> pools = new ConcurrentHashMap<>();
+
+    /**
+     * @param registry      Finds the factory for each input and output format
+     * @param converter     Converts a loaded document into the target format
+     * @param queueCapacity Number of documents each queue between stages holds
+     * @param ioWorkers     Number of virtual threads in each of the open and save
+     *                      stages
+     * @param cpuWorkers    Number of platform threads in the transform stage,
+     *                      typically the number of cores
+     * @throws IllegalArgumentException If the queue capacity or a worker count is
+     *                                  not positive
+     */
+    public ConversionPipeline(DocumentFactoryRegistry registry, DocumentConverter converter, int queueCapacity,
+            int ioWorkers, int cpuWorkers) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+        }
+        if (ioWorkers <= 0) {
+            throw new IllegalArgumentException("I/O workers must be positive: " + ioWorkers);
+        }
+        if (cpuWorkers <= 0) {
+            throw new IllegalArgumentException("CPU workers must be positive: " + cpuWorkers);
+        }
+        this.registry = registry;
+        this.converter = converter;
+        this.queueCapacity = queueCapacity;
+        this.ioWorkers = ioWorkers;
+        this.cpuWorkers = cpuWorkers;
+    }
+
+    /**
+     * Converts every input file and writes the results to the output directory
+     * under the same base name with the target extension. A file that fails in
+     * any stage is counted and skipped; the others carry on. A failure that is
+     * not tied to one file, such as an Error thrown by the converter or by a
+     * document's lifecycle methods, stops every stage and is rethrown.
+     *
+     * @param inputs          The files to convert
+     * @param targetExtension Extension of the target format, such as "pdf"
+     * @param outputDirectory Where the converted files are written
+     * @return Counts and per-stage throughput and queue depths
+     * @throws IllegalArgumentException If there is no factory for the target
+     *                                  format, or two inputs would be written to
+     *                                  the same file, such as a.doc and a.docx
+     * @throws InterruptedException     If interrupted while waiting for the
+     *                                  stages
+     */
+    public Report convert(List<Path> inputs, String targetExtension, Path outputDirectory)
+            throws InterruptedException {
+        DocumentFactory targetFactory = registry.forExtension(targetExtension);
+        if (targetFactory == null) {
+            throw new IllegalArgumentException("No factory for ." + targetExtension);
+        }
+        List<Path> outputs = outputs(inputs, targetExtension, outputDirectory);
+        PooledDocumentFactory targetPool = pool(targetFactory);
+        BlockingQueue<Job> opened = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Job> transformed = new ArrayBlockingQueue<>(queueCapacity);
+        Stage open = new Stage("open", ioWorkers, null);
+        Stage transform = new Stage("transform", cpuWorkers, opened);
+        Stage save = new Stage("save", ioWorkers, transformed);
+        AtomicInteger next = new AtomicInteger();
+        // The last worker of a stage to finish ends the queue to the next stage
+        AtomicInteger openersLeft = new AtomicInteger(ioWorkers);
+        AtomicInteger transformersLeft = new AtomicInteger(cpuWorkers);
+        // Jobs holding pooled documents, so a stopped pipeline can release them
+        Set<Job> inFlight = ConcurrentHashMap.newKeySet();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        long start = System.nanoTime();
+        try {
+            try (ExecutorService io = Executors.newVirtualThreadPerTaskExecutor();
+                    ExecutorService cpu = Executors.newFixedThreadPool(cpuWorkers)) {
+                // Interrupts every worker, including those blocked on a queue or a pool
+                Runnable abort = () -> {
+                    io.shutdownNow();
+                    cpu.shutdownNow();
+                };
+                List<Future<Void>> workers = new ArrayList<>();
+                submit(workers, io, ioWorkers, failure, abort, () -> {
+                    for (int i = next.getAndIncrement(); i < inputs.size(); i = next.getAndIncrement()) {
+                        Job job = open(open, inputs.get(i), outputs.get(i), inFlight);
+                        if (job != null) {
+                            opened.put(job);
+                        }
+                    }
+                    if (openersLeft.decrementAndGet() == 0) {
+                        opened.put(END);
+                    }
+                    return null;
+                });
+                submit(workers, cpu, cpuWorkers, failure, abort, () -> {
+                    for (Job job = transform.take(); job != END; job = transform.take()) {
+                        if (transform(transform, job, targetPool)) {
+                            transformed.put(job);
+                        }
+                    }
+                    if (transformersLeft.decrementAndGet() == 0) {
+                        transformed.put(END);
+                    }
+                    return null;
+                });
+                submit(workers, io, ioWorkers, failure, abort, () -> {
+                    for (Job job = save.take(); job != END; job = save.take()) {
+                        save(save, job);
+                    }
+                    return null;
+                });
+                try {
+                    for (Future<Void> worker : workers) {
+                        worker.get();
+                    }
+                } catch (ExecutionException e) {
+                    // The failing worker recorded its failure and stopped the others
+                } catch (InterruptedException e) {
+                    abort.run();
+                    throw e;
+                }
+            }
+        } finally {
+            // Every worker has ended here; jobs still in flight belonged to stopped ones
+            releaseAll(inFlight, failure.get());
+        }
+        Throwable failed = failure.get();
+        if (failed instanceof RuntimeException e) {
+            throw e;
+        }
+        if (failed instanceof Error e) {
+            throw e;
+        }
+        if (failed != null) {
+            throw new IllegalStateException("Pipeline worker failed", failed);
+        }
+        return new Report(System.nanoTime() - start, List.of(open, transform, save));
+    }
+
+    /**
+     * Disposes of the pooled documents of every format this pipeline has used.
+     * Call it once no {@link #convert} call is running.
+     */
+    @Override
+    public void close() {
+        RuntimeException failure = null;
+        for (PooledDocumentFactory pool : pools.values()) {
+            try {
+                pool.close();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        pools.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private Job open(Stage stage, Path input, Path output, Set<Job> inFlight) {
+        long start = System.nanoTime();
+        DocumentFactory factory = registry.forFileName(input.getFileName().toString());
+        if (factory == null) {
+            stage.failed(start);
+            return null;
+        }
+        Job job = new Job(input, output, inFlight);
+        job.sourcePool = pool(factory);
+        job.source = quiet(job.sourcePool.createDocument());
+        inFlight.add(job);
+        job.source.open();
+        try (FileChannel in = FileChannel.open(input)) {
+            job.source.load(in);
+        } catch (IOException e) {
+            job.release();
+            stage.failed(start);
+            return null;
+        }
+        stage.processed(start);
+        return job;
+    }
+
+    private boolean transform(Stage stage, Job job, PooledDocumentFactory targetPool) {
+        long start = System.nanoTime();
+        job.targetPool = targetPool;
+        job.target = quiet(targetPool.createDocument());
+        job.target.open();
+        try {
+            converter.convert(job.source, job.target);
+        } catch (IOException | RuntimeException e) {
+            job.release();
+            stage.failed(start);
+            return false;
+        }
+        // Recycle the source as soon as it is no longer needed
+        job.releaseSource();
+        stage.processed(start);
+        return true;
+    }
+
+    private void save(Stage stage, Job job) {
+        long start = System.nanoTime();
+        try (FileChannel out = FileChannel.open(job.output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            job.target.save();
+            job.target.save(out);
+            stage.processed(start);
+        } catch (IOException e) {
+            stage.failed(start);
+        } finally {
+            job.release();
+        }
+    }
+
+    // Pools are kept across batches so documents and their buffers are reused.
+    // Sized for every document that can be in flight at once (a transform worker
+    // holds two), so taking one never has to wait.
+    private PooledDocumentFactory pool(DocumentFactory factory) {
+        return pools.computeIfAbsent(factory,
+                f -> new PooledDocumentFactory(f, 2 * (queueCapacity + ioWorkers + cpuWorkers)));
+    }
+
+    // Lifecycle messages are for interactive use; a batch of thousands of files
+    // must not print a line per document
+    private static Document quiet(Document document) {
+        if (document instanceof ChannelDocument channelDocument) {
+            channelDocument.reportTo(null);
+        }
+        return document;
+    }
+
+    // Output file of each input, rejecting inputs that differ only in their
+    // extension, such as a.doc and a.docx, because one would overwrite the other
+    private static List<Path> outputs(List<Path> inputs, String targetExtension, Path outputDirectory) {
+        Map<Path, Path> sources = new HashMap<>();
+        List<Path> outputs = new ArrayList<>(inputs.size());
+        for (Path input : inputs) {
+            String name = input.getFileName().toString();
+            int dot = name.lastIndexOf('.');
+            Path output = outputDirectory.resolve((dot < 0 ? name : name.substring(0, dot)) + "." + targetExtension);
+            Path previous = sources.putIfAbsent(output, input);
+            if (previous != null) {
+                throw new IllegalArgumentException(
+                        previous + " and " + input + " would both be converted to " + output);
+            }
+            outputs.add(output);
+        }
+        return outputs;
+    }
+
+    // Runs the worker on every thread. The first one to fail records the failure
+    // and stops all stages, so none stays blocked on a queue nobody serves.
+    private static void submit(List<Future<Void>> futures, ExecutorService executor, int workers,
+            AtomicReference<Throwable> failure, Runnable abort, Callable<Void> worker) {
+        Callable<Void> guarded = () -> {
+            try {
+                return worker.call();
+            } catch (Exception | Error e) {
+                if (failure.compareAndSet(null, e)) {
+                    abort.run();
+                }
+                throw e;
+            }
+        };
+        for (int i = 0; i < workers; i++) {
+            futures.add(executor.submit(guarded));
+        }
+    }
+
+    // Releases jobs left behind by a stopped pipeline, keeping its failure as the
+    // one reported
+    private static void releaseAll(Set<Job> jobs, Throwable failure) {
+        for (Job job : jobs) {
+            try {
+                job.release();
+            } catch (RuntimeException | Error e) {
+                if (failure == null) {
+                    throw e;
+                }
+                failure.addSuppressed(e);
+            }
+        }
+    }
+
+    // One document on its way through the pipeline
+    private static final class Job {
+        final Path input;
+        final Path output;
+        final Set<Job> inFlight;
+        PooledDocumentFactory sourcePool;
+        Document source;
+        PooledDocumentFactory targetPool;
+        Document target;
+
+        Job(Path input, Path output, Set<Job> inFlight) {
+            this.input = input;
+            this.output = output;
+            this.inFlight = inFlight;
+        }
+
+        // Closes the source and hands it back to its pool
+        void releaseSource() {
+            Document document = source;
+            source = null;
+            try {
+                document.close();
+            } finally {
+                sourcePool.releaseDocument(document);
+            }
+        }
+
+        // Closes and hands back every document the job still holds
+        void release() {
+            try {
+                if (source != null) {
+                    releaseSource();
+                }
+            } finally {
+                if (target != null) {
+                    Document document = target;
+                    target = null;
+                    try {
+                        document.close();
+                    } finally {
+                        targetPool.releaseDocument(document);
+                    }
+                }
+                inFlight.remove(this);
+            }
+        }
+    }
+
+    // Counters for one stage, updated concurrently by its workers
+    private static final class Stage {
+        final String name;
+        final int workers;
+        final BlockingQueue<Job> input;
+        final LongAdder processed = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder busyNanos = new LongAdder();
+        final LongAdder depthSum = new LongAdder();
+        final LongAdder takes = new LongAdder();
+        final AtomicInteger maxDepth = new AtomicInteger();
+
+        Stage(String name, int workers, BlockingQueue<Job> input) {
+            this.name = name;
+            this.workers = workers;
+            this.input = input;
+        }
+
+        // Takes the next job, sampling the queue depth as it does
+        Job take() throws InterruptedException {
+            int depth = input.size();
+            depthSum.add(depth);
+            takes.increment();
+            maxDepth.accumulateAndGet(depth, Math::max);
+            Job job = input.take();
+            if (job == END) {
+                input.put(END);
+            }
+            return job;
+        }
+
+        void processed(long startNanos) {
+            processed.increment();
+            busyNanos.add(System.nanoTime() - startNanos);
+        }
+
+        void failed(long startNanos) {
+            failed.increment();
+            busyNanos.add(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Outcome of one {@link #convert} call
+     */
+    public static class Report {
+        private final long elapsedNanos;
+        private final List<Stage> stages;
+
+        Report(long elapsedNanos, List<Stage> stages) {
+            this.elapsedNanos = elapsedNanos;
+            this.stages = stages;
+        }
+
+        /**
+         * @return Number of documents written to the output directory
+         */
+        public long converted() {
+            return stages.get(stages.size() - 1).processed.sum();
+        }
+
+        /**
+         * @return Number of documents that failed in any stage
+         */
+        public long failed() {
+            long failed = 0;
+            for (Stage stage : stages) {
+                failed += stage.failed.sum();
+            }
+            return failed;
+        }
+
+        /**
+         * @return Wall-clock time of the whole batch in nanoseconds
+         */
+        public long elapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * One line per stage with its throughput, the share of its workers' time
+         * spent busy, and the depth of the queue feeding it. A stage whose queue
+         * stays full is the bottleneck.
+         */
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(String.format(Locale.ROOT, "%-10s %8s %10s %8s %12s %7s %11s %10s%n",
+                    "Stage", "Workers", "Processed", "Failed", "docs/s", "Busy", "Mean depth", "Max depth"));
+            for (Stage stage : stages) {
+                long processed = stage.processed.sum();
+                long takes = stage.takes.sum();
+                text.append(String.format(Locale.ROOT, "%-10s %8d %10d %8d %12.1f %6.1f%% %11s %10s%n", stage.name,
+                        stage.workers, processed, stage.failed.sum(), processed * 1e9 / elapsedNanos,
+                        100.0 * stage.busyNanos.sum() / ((double) elapsedNanos * stage.workers),
+                        stage.input == null ? "-"
+                                : String.format(Locale.ROOT, "%.1f", takes == 0 ? 0.0 : (double) stage.depthSum.sum() / takes),
+                        stage.input == null ? "-" : Integer.toString(stage.maxDepth.get())));
+            }
+            return text.toString();
+        }
+    }
+}
@@ -1,3 +1,7 @@
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
 /**
  * Document interface that defines the common operations for all document types
  */
@@ -6,5 +10,59 @@ public interface Document {
 
     void save();
 
+    /**
+     * Ends the current use of the document. Its content is discarded, but
+     * resources such as spool files are kept so a pooled document can be opened
+     * again; {@link #dispose()} frees them.
+     */
     void close();
+
+    /**
+     * Replaces the content with everything read from the channel. The content is
+     * streamed, so it never has to fit in memory. Documents that do not hold
+     * content, the default, throw {@link UnsupportedOperationException}.
+     * 
+     * @param source Channel to read until end of stream
+     * @throws IOException If reading or storing the content fails
+     */
+    default void load(ReadableByteChannel source) throws IOException {
+        throw new UnsupportedOperationException(getClass().getName() + " cannot load content");
+    }
+
+    /**
+     * Writes the content to the channel, streaming it rather than building it in
+     * memory first. Documents that do not hold content, the default, throw
+     * {@link UnsupportedOperationException}.
+     * 
+     * @param target Channel to write to, in blocking mode
+     * @throws IOException If writing fails
+     */
+    default void save(WritableByteChannel target) throws IOException {
+        throw new UnsupportedOperationException(getClass().getName() + " cannot save content");
+    }
+
+    /**
+     * @return Size of the content in bytes; 0 by default, for documents that do
+     *         not hold content
+     */
+    default long size() {
+        return 0;
+    }
+
+    /**
+     * Lifecycle hook called when a pooled document is released, before it is
+     * parked for the next user. It must clear any state left by the previous
+     * user while keeping expensive resources such as buffers and parsers for
+     * reuse.
+     */
+    default void reset() {
+    }
+
+    /**
+     * Frees the document's resources for good. Called through
+     * {@link DocumentFactory#releaseDocument} by the factory that owns the
+     * document, never while it is still in use.
+     */
+    default void dispose() {
+    }
 }
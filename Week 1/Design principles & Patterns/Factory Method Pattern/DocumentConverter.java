@@ -0,0 +1,15 @@
+import java.io.IOException;
+
+/**
+ * Converts the content of one document into another, such as Word to PDF. Used
+ * by the CPU-bound stage of {@link ConversionPipeline}.
+ */
+@FunctionalInterface
+public interface DocumentConverter {
+    /**
+     * @param source The loaded document to convert
+     * @param target An empty document of the target format to fill
+     * @throws IOException If reading the source or writing the target fails
+     */
+    void convert(Document source, Document target) throws IOException;
+}
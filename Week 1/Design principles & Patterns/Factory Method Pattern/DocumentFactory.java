@@ -1,3 +1,5 @@
+import java.util.List;
+
 /**
  * Abstract Document Factory with factory method createDocument()
  */
@@ -9,6 +11,35 @@ public abstract class DocumentFactory {
      */
     public abstract Document createDocument();
 
+    /**
+     * File extensions this factory handles, used by
+     * {@link DocumentFactoryRegistry}
+     * 
+     * @return Lower-case extensions without the dot, such as "pdf"
+     */
+    public List<String> extensions() {
+        return List.of();
+    }
+
+    /**
+     * MIME types this factory handles, used by {@link DocumentFactoryRegistry}
+     * 
+     * @return Lower-case MIME types, such as "application/pdf"
+     */
+    public List<String> mimeTypes() {
+        return List.of();
+    }
+
+    /**
+     * Hands back a document the caller has finished with. Plain factories dispose
+     * of it; pooling factories recycle it.
+     * 
+     * @param document A document obtained from {@link #createDocument()}
+     */
+    public void releaseDocument(Document document) {
+        document.dispose();
+    }
+
     /**
      * Template method that uses the factory method
      */
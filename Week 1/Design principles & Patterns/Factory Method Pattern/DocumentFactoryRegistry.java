@@ -0,0 +1,94 @@
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Finds the document factory for a format by file extension or MIME type. The
+ * factories are discovered once through {@link ServiceLoader}, which reads the
+ * class names listed in META-INF/services/DocumentFactory on the class path,
+ * and kept in immutable maps, so resolving a format afterwards is a single hash
+ * lookup with no reflection.
+ */
+public final class DocumentFactoryRegistry {
+    private final Map<String, DocumentFactory> byExtension;
+    private final Map<String, DocumentFactory> byMimeType;
+
+    // Built the first time getDefault() is called, then shared by every caller
+    private static class Holder {
+        static final DocumentFactoryRegistry DEFAULT = new DocumentFactoryRegistry(
+                ServiceLoader.load(DocumentFactory.class));
+    }
+
+    /**
+     * Builds a registry from the given factories
+     *
+     * @param factories The factories to register
+     * @throws IllegalArgumentException If two factories claim the same extension
+     *                                  or MIME type
+     */
+    public DocumentFactoryRegistry(Iterable<DocumentFactory> factories) {
+        Map<String, DocumentFactory> byExtension = new HashMap<>();
+        Map<String, DocumentFactory> byMimeType = new HashMap<>();
+        for (DocumentFactory factory : factories) {
+            for (String extension : factory.extensions()) {
+                register(byExtension, extension, factory);
+            }
+            for (String mimeType : factory.mimeTypes()) {
+                register(byMimeType, mimeType, factory);
+            }
+        }
+        this.byExtension = Map.copyOf(byExtension);
+        this.byMimeType = Map.copyOf(byMimeType);
+    }
+
+    /**
+     * @return The registry of every factory listed in
+     *         META-INF/services/DocumentFactory
+     */
+    public static DocumentFactoryRegistry getDefault() {
+        return Holder.DEFAULT;
+    }
+
+    /**
+     * @param extension A file extension such as "pdf" or ".PDF"
+     * @return The factory for it, or null if there is none
+     */
+    public DocumentFactory forExtension(String extension) {
+        String key = extension.startsWith(".") ? extension.substring(1) : extension;
+        // toLowerCase returns the same string when it is already lower case
+        return byExtension.get(key.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @param mimeType A MIME type such as "application/pdf"
+     * @return The factory for it, or null if there is none
+     */
+    public DocumentFactory forMimeType(String mimeType) {
+        return byMimeType.get(mimeType.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @param fileName A file name such as "report.pdf"
+     * @return The factory for its extension, or null if there is none
+     */
+    public DocumentFactory forFileName(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? null : forExtension(fileName.substring(dot + 1));
+    }
+
+    /**
+     * @return Every registered extension with its factory
+     */
+    public Map<String, DocumentFactory> extensions() {
+        return byExtension;
+    }
+
+    private static void register(Map<String, DocumentFactory> map, String key, DocumentFactory factory) {
+        DocumentFactory previous = map.putIfAbsent(key.toLowerCase(Locale.ROOT), factory);
+        if (previous != null) {
+            throw new IllegalArgumentException("Both " + previous.getClass().getSimpleName() + " and "
+                    + factory.getClass().getSimpleName() + " handle " + key);
+        }
+    }
+}
@@ -1,19 +1,20 @@
 /**
  * Concrete implementation of Document interface for Excel documents
  */
-public class ExcelDocument implements Document {
+public class ExcelDocument extends ChannelDocument {
     @Override
     public void open() {
-        System.out.println("Opening Excel document");
+        report("Opening Excel document");
     }
 
     @Override
     public void save() {
-        System.out.println("Saving Excel document");
+        report("Saving Excel document");
     }
 
     @Override
     public void close() {
-        System.out.println("Closing Excel document");
+        report("Closing Excel document");
+        super.close();
     }
 }
@@ -1,3 +1,5 @@
+import java.util.List;
+
 /**
  * Concrete factory for creating Excel documents
  */
@@ -6,4 +8,14 @@ public class ExcelDocumentFactory extends DocumentFactory {
     public Document createDocument() {
         return new ExcelDocument();
     }
+
+    @Override
+    public List<String> extensions() {
+        return List.of("xlsx", "xls");
+    }
+
+    @Override
+    public List<String> mimeTypes() {
+        return List.of("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "application/vnd.ms-excel");
+    }
 }
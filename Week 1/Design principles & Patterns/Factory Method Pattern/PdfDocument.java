@@ -1,19 +1,20 @@
 /**
  * Concrete implementation of Document interface for PDF documents
  */
-public class PdfDocument implements Document {
+public class PdfDocument extends ChannelDocument {
     @Override
     public void open() {
-        System.out.println("Opening PDF document");
+        report("Opening PDF document");
     }
 
     @Override
     public void save() {
-        System.out.println("Saving PDF document");
+        report("Saving PDF document");
     }
 
     @Override
     public void close() {
-        System.out.println("Closing PDF document");
+        report("Closing PDF document");
+        super.close();
     }
 }
@@ -1,3 +1,5 @@
+import java.util.List;
+
 /**
  * Concrete factory for creating PDF documents
  */
@@ -6,4 +8,14 @@ public class PdfDocumentFactory extends DocumentFactory {
     public Document createDocument() {
         return new PdfDocument();
     }
+
+    @Override
+    public List<String> extensions() {
+        return List.of("pdf");
+    }
+
+    @Override
+    public List<String> mimeTypes() {
+        return List.of("application/pdf");
+    }
 }
@@ -0,0 +1,249 @@
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Factory that recycles documents made by another factory instead of creating a
+ * new one on every call. At most {@code capacity} documents exist at once:
+ * released documents are reset and parked in a fixed array of slots, and
+ * {@link #createDocument()} takes one from there (a hit), creates a new one in
+ * an empty slot (a miss), or otherwise blocks until one is released (a wait).
+ *
+ * <p>
+ * A semaphore with one permit per slot bounds the documents checked out at
+ * once, so a caller that gets a permit is sure to find a parked document or an
+ * empty slot. Slots change state with compare-and-set, so apart from waiting
+ * for a permit the pool never blocks and allocates nothing per call.
+ *
+ * <p>
+ * Documents keep their resources while parked; {@link #close()} disposes them.
+ */
+public class PooledDocumentFactory extends DocumentFactory implements AutoCloseable {
+    // Slot states: no document yet, document parked in the pool, document in use,
+    // document being reset on its way back
+    private static final int EMPTY = 0;
+    private static final int PARKED = 1;
+    private static final int IN_USE = 2;
+    private static final int RESETTING = 3;
+
+    private final DocumentFactory factory;
+    private final AtomicReferenceArray<Document> documents;
+    private final AtomicIntegerArray states;
+    // One permit per document that may be checked out
+    private final Semaphore permits;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * @param factory  Creates the documents the pool hands out
+     * @param capacity Maximum number of documents that exist at once
+     */
+    public PooledDocumentFactory(DocumentFactory factory, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.factory = factory;
+        this.documents = new AtomicReferenceArray<>(capacity);
+        this.states = new AtomicIntegerArray(capacity);
+        this.permits = new Semaphore(capacity);
+    }
+
+    /**
+     * Returns a pooled document, creating one only while the pool is below its
+     * capacity. When every document is in use this blocks until one is released.
+     *
+     * @return A document that is reset and ready to open
+     * @throws IllegalStateException If the pool is closed, or if interrupted while
+     *                               waiting; the interrupt status is kept
+     */
+    @Override
+    public Document createDocument() {
+        if (!permits.tryAcquire()) {
+            waits.increment();
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a pooled document", e);
+            }
+        }
+        if (closed) {
+            permits.release();
+            throw new IllegalStateException("Document pool is closed");
+        }
+        // Holding a permit, at most capacity - 1 slots are in use by others, so a
+        // parked document or an empty slot turns up within a pass or two
+        while (true) {
+            int start = probe();
+            for (int i = 0; i < states.length(); i++) {
+                int slot = (start + i) % states.length();
+                if (states.get(slot) == PARKED && states.compareAndSet(slot, PARKED, IN_USE)) {
+                    hits.increment();
+                    return documents.get(slot);
+                }
+            }
+            for (int i = 0; i < states.length(); i++) {
+                int slot = (start + i) % states.length();
+                if (states.get(slot) == EMPTY && states.compareAndSet(slot, EMPTY, IN_USE)) {
+                    misses.increment();
+                    return create(slot);
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<String> extensions() {
+        return factory.extensions();
+    }
+
+    @Override
+    public List<String> mimeTypes() {
+        return factory.mimeTypes();
+    }
+
+    /**
+     * Resets the document and parks it in the pool, or disposes of it once the
+     * pool is closed. If {@link Document#reset()} throws, the document is
+     * disposed and its slot freed for a new one before the exception is
+     * rethrown.
+     *
+     * @param document A document obtained from this factory's
+     *                 {@link #createDocument()} and not released since
+     * @throws IllegalArgumentException If the document does not come from this
+     *                                  pool
+     * @throws IllegalStateException    If the document was already released
+     */
+    @Override
+    public void releaseDocument(Document document) {
+        int slot = slotOf(document);
+        if (!states.compareAndSet(slot, IN_USE, RESETTING)) {
+            throw new IllegalStateException("Document released twice: " + document);
+        }
+        try {
+            document.reset();
+        } catch (RuntimeException | Error e) {
+            discard(slot, e);
+            throw e;
+        }
+        states.set(slot, PARKED);
+        permits.release();
+        if (closed) {
+            // close() may have scanned this slot before the document was parked
+            dispose(slot);
+        }
+    }
+
+    /**
+     * Disposes every parked document and stops handing out new ones. Documents
+     * still in use are disposed when they are released.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        RuntimeException failure = null;
+        for (int i = 0; i < states.length(); i++) {
+            try {
+                dispose(i);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * @return Number of calls served by a pooled document
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Number of calls that had to create a new document
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Number of calls that waited for another caller to release one
+     */
+    public long waits() {
+        return waits.sum();
+    }
+
+    /**
+     * @return Number of documents parked in the pool right now
+     */
+    public int available() {
+        int available = 0;
+        for (int i = 0; i < states.length(); i++) {
+            if (states.get(i) == PARKED) {
+                available++;
+            }
+        }
+        return available;
+    }
+
+    // Fills a claimed empty slot; if the factory fails the slot is freed again
+    private Document create(int slot) {
+        Document document = null;
+        try {
+            document = factory.createDocument();
+            documents.set(slot, document);
+            return document;
+        } finally {
+            if (document == null) {
+                states.set(slot, EMPTY);
+                permits.release();
+            }
+        }
+    }
+
+    // Disposes of the document in a slot whose reset failed and frees the slot
+    private void discard(int slot, Throwable failure) {
+        Document document = documents.getAndSet(slot, null);
+        states.set(slot, EMPTY);
+        permits.release();
+        try {
+            document.dispose();
+        } catch (RuntimeException | Error e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    // Disposes of the document parked in a slot, unless another thread claims it
+    // first
+    private void dispose(int slot) {
+        if (states.get(slot) == PARKED && states.compareAndSet(slot, PARKED, RESETTING)) {
+            Document document = documents.getAndSet(slot, null);
+            states.set(slot, EMPTY);
+            document.dispose();
+        }
+    }
+
+    private int slotOf(Document document) {
+        for (int i = 0; i < documents.length(); i++) {
+            if (documents.get(i) == document) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Document does not belong to this pool: " + document);
+    }
+
+    // Different threads start scanning at different slots to spread contention
+    private int probe() {
+        return (Thread.currentThread().hashCode() & Integer.MAX_VALUE) % states.length();
+    }
+}
@@ -1,19 +1,20 @@
 /**
  * Concrete implementation of Document interface for Word documents
  */
-public class WordDocument implements Document {
+public class WordDocument extends ChannelDocument {
     @Override
     public void open() {
-        System.out.println("Opening Word document");
+        report("Opening Word document");
     }
 
     @Override
     public void save() {
-        System.out.println("Saving Word document");
+        report("Saving Word document");
     }
 
     @Override
     public void close() {
-        System.out.println("Closing Word document");
+        report("Closing Word document");
+        super.close();
     }
 }
@@ -1,3 +1,5 @@
+import java.util.List;
+
 /**
  * Concrete factory for creating Word documents
  */
@@ -6,4 +8,14 @@ public class WordDocumentFactory extends DocumentFactory {
     public Document createDocument() {
         return new WordDocument();
     }
+
+    @Override
+    public List<String> extensions() {
+        return List.of("docx", "doc");
+    }
+
+    @Override
+    public List<String> mimeTypes() {
+        return List.of("application/vnd.openxmlformats-officedocument.wordprocessingml.document", "application/msword");
+    }
 }
@@ -1,5 +1,14 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 public class App {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         // Test the Singleton implementation
         System.out.println("Testing Singleton Pattern with Logger class");
 
@@ -17,6 +26,42 @@ public class App {
         // Use the logger
         logger1.log("This is a log message from logger1");
         logger2.log("This is a log message from logger2");
+
+        // Leveled, parameterized logging: messages below the level are skipped
+        // without formatting anything
+        logger1.log(Level.DEBUG, "Cache hit ratio is {}", 0.93);
+        logger1.log(Level.WARN, "Disk usage at {}%", 93);
+
+        // Switch to asynchronous logging: messages go through a ring buffer and
+        // are written by a background thread
+        System.out.println("Switching to asynchronous logging");
+        logger1.startAsync(1024);
+        logger1.log("This is an asynchronous log message");
+        logger2.log("This is another asynchronous log message");
+        logger1.stopAsync();
+
+        // Durable logging: the background thread writes into memory-mapped,
+        // rolling segment files
+        Path logDirectory = Files.createTempDirectory("logs");
+        try (MappedFileLogSink file = new MappedFileLogSink(logDirectory, "app", 1 << 20, 64 * 1024, 1000)) {
+            logger1.startAsync(1024, file);
+            logger1.log("This message goes to a memory-mapped log file");
+            logger1.stopAsync();
+            System.out.println("Logged to file " + file.currentSegment().getFileName());
+        }
+        try (var files = Files.list(logDirectory)) {
+            for (Path file : files.toList()) {
+                try {
+                    Files.delete(file);
+                } catch (IOException e) {
+                    // Windows keeps a closed segment mapped until its buffer is
+                    // garbage collected and refuses to delete it until then;
+                    // leave it in the temporary directory
+                    return;
+                }
+            }
+        }
+        Files.delete(logDirectory);
     }
 }
 
@@ -25,8 +70,24 @@ public class App {
  * This ensures only one instance of Logger exists throughout the application.
  */
 class Logger {
-    // Private static variable to hold the single instance of Logger
-    private static Logger instance;
+    // Holder class for the single instance. The JVM initializes it, under its own
+    // class-initialization lock, the first time getInstance() reads the field, so
+    // the instance is created exactly once and safely published to every thread
+    private static class Holder {
+        static final Logger INSTANCE = new Logger();
+    }
+
+    // Background writer while asynchronous logging is on, otherwise null
+    private volatile AsyncLogWriter asyncWriter;
+
+    // Messages below this level are dropped
+    private volatile Level level = Level.INFO;
+
+    // Per-thread buffers that messages are formatted and encoded in
+    private static final ThreadLocal<LineBuffer> BUFFER = ThreadLocal.withInitial(LineBuffer::new);
+    // Buffers that grew past this size are not kept, so one huge message does not
+    // pin memory for the life of the thread
+    private static final int MAX_RETAINED_BUFFER = 4096;
 
     // Private constructor to prevent instantiation from outside the class
     private Logger() {
@@ -35,24 +96,276 @@ class Logger {
 
     /**
      * Public static method to get the single instance of Logger
-     * If the instance doesn't exist, it creates one; otherwise, returns existing
-     * instance
+     * The instance is created on the first call, even when many threads make that
+     * call at once; afterwards this is a plain static final field read with no
+     * locking
      * 
      * @return The single instance of Logger
      */
     public static Logger getInstance() {
-        if (instance == null) {
-            instance = new Logger();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
 
     /**
-     * Method to log messages
+     * Method to log messages at {@link Level#INFO}. In asynchronous mode the
+     * message is only placed in the ring buffer and this method returns without
+     * blocking on I/O.
      * 
      * @param message The message to be logged
      */
     public void log(String message) {
-        System.out.println("LOG: " + message);
+        if (isEnabled(Level.INFO)) {
+            end(begin(Level.INFO).append(message), message, -1);
+        }
+    }
+
+    /**
+     * @param level The lowest level that is logged from now on
+     */
+    public void setLevel(Level level) {
+        this.level = level;
+    }
+
+    /**
+     * @return The lowest level that is logged
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * @param level The level to check
+     * @return true if messages at this level are logged
+     */
+    public boolean isEnabled(Level level) {
+        return level.compareTo(this.level) >= 0;
+    }
+
+    /**
+     * Logs a message whose "{}" placeholders are replaced by the arguments in
+     * order. When the level is disabled this returns before formatting or
+     * allocating anything.
+     * 
+     * @param level   The level of the message
+     * @param pattern The message text with "{}" placeholders
+     * @param a1      Value for the first placeholder
+     */
+    public void log(Level level, String pattern, Object a1) {
+        if (isEnabled(level)) {
+            StringBuilder message = begin(level);
+            int at = appendUntilPlaceholder(message, pattern, 0);
+            if (at >= 0) {
+                message.append(a1);
+            }
+            end(message, pattern, at);
+        }
+    }
+
+    /**
+     * Same as {@link #log(Level, String, Object)} with two arguments
+     */
+    public void log(Level level, String pattern, Object a1, Object a2) {
+        if (isEnabled(level)) {
+            StringBuilder message = begin(level);
+            int at = appendUntilPlaceholder(message, pattern, 0);
+            if (at >= 0) {
+                message.append(a1);
+                at = appendUntilPlaceholder(message, pattern, at);
+            }
+            if (at >= 0) {
+                message.append(a2);
+            }
+            end(message, pattern, at);
+        }
+    }
+
+    /**
+     * Same as {@link #log(Level, String, Object)} with three arguments
+     */
+    public void log(Level level, String pattern, Object a1, Object a2, Object a3) {
+        if (isEnabled(level)) {
+            StringBuilder message = begin(level);
+            int at = appendUntilPlaceholder(message, pattern, 0);
+            if (at >= 0) {
+                message.append(a1);
+                at = appendUntilPlaceholder(message, pattern, at);
+            }
+            if (at >= 0) {
+                message.append(a2);
+                at = appendUntilPlaceholder(message, pattern, at);
+            }
+            if (at >= 0) {
+                message.append(a3);
+            }
+            end(message, pattern, at);
+        }
+    }
+
+    /**
+     * Same as {@link #log(Level, String, Object)} for a primitive argument, which
+     * is neither boxed nor turned into a String
+     */
+    public void log(Level level, String pattern, long a1) {
+        if (isEnabled(level)) {
+            StringBuilder message = begin(level);
+            int at = appendUntilPlaceholder(message, pattern, 0);
+            if (at >= 0) {
+                message.append(a1);
+            }
+            end(message, pattern, at);
+        }
+    }
+
+    /**
+     * Same as {@link #log(Level, String, long)} with two arguments
+     */
+    public void log(Level level, String pattern, long a1, long a2) {
+        if (isEnabled(level)) {
+            StringBuilder message = begin(level);
+            int at = appendUntilPlaceholder(message, pattern, 0);
+            if (at >= 0) {
+                message.append(a1);
+                at = appendUntilPlaceholder(message, pattern, at);
+            }
+            if (at >= 0) {
+                message.append(a2);
+            }
+            end(message, pattern, at);
+        }
+    }
+
+    /**
+     * Same as {@link #log(Level, String, long)} for a double argument
+     */
+    public void log(Level level, String pattern, double a1) {
+        if (isEnabled(level)) {
+            StringBuilder message = begin(level);
+            int at = appendUntilPlaceholder(message, pattern, 0);
+            if (at >= 0) {
+                message.append(a1);
+            }
+            end(message, pattern, at);
+        }
+    }
+
+    // Takes this thread's builder and starts the line with its level. The builder
+    // stays taken until end(), so a message whose argument logs from its
+    // toString() re-enters here, finds none and formats into a fresh builder
+    // instead of overwriting the outer message.
+    private static StringBuilder begin(Level level) {
+        LineBuffer buffer = BUFFER.get();
+        StringBuilder line = buffer.text;
+        if (line == null) {
+            line = new StringBuilder(256);
+        } else {
+            buffer.text = null;
+            line.setLength(0);
+        }
+        return line.append("LOG: [").append(level.name()).append("] ");
+    }
+
+    // Appends pattern text from the given index up to the next "{}" and returns
+    // the index after it; if there is none, appends the rest and returns -1
+    private static int appendUntilPlaceholder(StringBuilder message, String pattern, int from) {
+        int placeholder = pattern.indexOf("{}", from);
+        if (placeholder < 0) {
+            message.append(pattern, from, pattern.length());
+            return -1;
+        }
+        message.append(pattern, from, placeholder);
+        return placeholder + 2;
+    }
+
+    // Appends what is left of the pattern, logs the finished line and hands the
+    // builder back. If the thread's builder was lost because a toString() threw,
+    // this one takes its place.
+    private void end(StringBuilder line, String pattern, int at) {
+        if (at >= 0) {
+            line.append(pattern, at, pattern.length());
+        }
+        LineBuffer buffer = BUFFER.get();
+        AsyncLogWriter writer = asyncWriter;
+        if (writer != null) {
+            writer.publish(line);
+        } else {
+            buffer.print(line);
+        }
+        if (buffer.text == null && line.capacity() <= MAX_RETAINED_BUFFER) {
+            buffer.text = line;
+        }
+    }
+
+    // One thread's formatting builder, plus the arrays its lines are encoded into
+    // for the console, so an enabled message never becomes a String
+    private static final class LineBuffer {
+        StringBuilder text = new StringBuilder(256);
+        private CharBuffer chars = CharBuffer.allocate(256);
+        private ByteBuffer bytes = ByteBuffer.allocate(1024);
+        private CharsetEncoder encoder;
+
+        // Writes the line and a line separator to System.out in a single write
+        void print(StringBuilder line) {
+            PrintStream out = System.out;
+            if (encoder == null || !encoder.charset().equals(out.charset())) {
+                encoder = out.charset().newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            }
+            String separator = System.lineSeparator();
+            int length = line.length() + separator.length();
+            int maxBytes = (int) Math.ceil(length * (double) encoder.maxBytesPerChar());
+            CharBuffer chars = this.chars.capacity() >= length ? this.chars : CharBuffer.allocate(length);
+            ByteBuffer bytes = this.bytes.capacity() >= maxBytes ? this.bytes : ByteBuffer.allocate(maxBytes);
+            line.getChars(0, line.length(), chars.array(), 0);
+            separator.getChars(0, separator.length(), chars.array(), line.length());
+            chars.clear().limit(length);
+            bytes.clear();
+            encoder.reset();
+            encoder.encode(chars, bytes, true);
+            encoder.flush(bytes);
+            out.write(bytes.array(), 0, bytes.position());
+            if (maxBytes <= MAX_RETAINED_BUFFER) {
+                this.chars = chars;
+                this.bytes = bytes;
+            }
+        }
+    }
+
+    /**
+     * Switches to asynchronous logging to the console
+     * 
+     * @param capacity Number of messages the ring buffer can hold
+     */
+    public void startAsync(int capacity) {
+        startAsync(capacity, new ConsoleLogSink());
+    }
+
+    /**
+     * Switches to asynchronous logging. Callers publish into a pre-allocated
+     * lock-free ring buffer and a single background thread writes batches of
+     * messages to the sink.
+     * 
+     * @param capacity Number of messages the ring buffer can hold
+     * @param sink     Where the background thread writes the messages
+     */
+    public synchronized void startAsync(int capacity, LogSink sink) {
+        if (asyncWriter != null) {
+            throw new IllegalStateException("Asynchronous logging is already running");
+        }
+        AsyncLogWriter writer = new AsyncLogWriter(capacity, sink);
+        writer.start();
+        asyncWriter = writer;
+    }
+
+    /**
+     * Writes all queued messages and returns to synchronous logging. Call it once
+     * logging threads are quiet: a message from a thread racing with this call
+     * can be lost.
+     */
+    public synchronized void stopAsync() {
+        AsyncLogWriter writer = asyncWriter;
+        if (writer != null) {
+            asyncWriter = null;
+            writer.stop();
+        }
     }
 }
@@ -0,0 +1,109 @@
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background consumer for a {@link LogRingBuffer}. It drains messages in
+ * batches into one reusable buffer and hands each batch to the sink
+ * in a single write, so the sink's locking and I/O cost is paid once per batch
+ * instead of once per message. When the buffer is empty it flushes the sink once
+ * and parks until a producer wakes it.
+ * <p>
+ * A sink that throws does not stop the thread: the failure is reported on
+ * System.err and that batch is dropped, so producers never wait on a ring that
+ * nobody drains.
+ */
+class AsyncLogWriter implements Runnable {
+    private static final int BATCH_SIZE = 256;
+
+    private final LogRingBuffer ring;
+    private final LogSink sink;
+    private final Thread thread;
+    private volatile boolean running = true;
+    // Set while the consumer is parked or about to park; producers only pay for
+    // an unpark when it is true
+    private volatile boolean idle;
+
+    AsyncLogWriter(int capacity, LogSink sink) {
+        this.ring = new LogRingBuffer(capacity);
+        this.sink = sink;
+        this.thread = new Thread(this, "async-logger");
+        thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Queues one formatted line, without its line terminator; called on the
+     * logging thread, which may reuse the line's buffer once this returns
+     */
+    void publish(CharSequence line) {
+        ring.publish(line);
+        if (idle) {
+            idle = false;
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Writes everything still queued, then stops the consumer thread
+     */
+    void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        StringBuilder text = new StringBuilder(BATCH_SIZE * 64);
+        while (running || !ring.isEmpty()) {
+            text.setLength(0);
+            int count = ring.drainTo(text, BATCH_SIZE);
+            if (count == 0) {
+                if (running) {
+                    awaitMessages();
+                } else {
+                    // A producer has claimed a slot but not published it yet
+                    Thread.onSpinWait();
+                }
+                continue;
+            }
+            try {
+                sink.write(text);
+            } catch (RuntimeException | Error e) {
+                report("dropped " + count + " messages", e);
+            }
+        }
+        flush();
+    }
+
+    // Flushes once, then parks until a producer publishes or stop() is called.
+    // The ring is checked again after idle is set: both sides write one volatile
+    // and then read the other's, so either the producer sees idle and unparks, or
+    // this thread sees the message and does not park.
+    private void awaitMessages() {
+        flush();
+        idle = true;
+        while (idle && running && !ring.hasPublished()) {
+            LockSupport.park(this);
+        }
+        idle = false;
+    }
+
+    private void flush() {
+        try {
+            sink.flush();
+        } catch (RuntimeException | Error e) {
+            report("flush failed", e);
+        }
+    }
+
+    private static void report(String what, Throwable failure) {
+        System.err.println("async-logger: " + what + ": " + failure);
+    }
+}
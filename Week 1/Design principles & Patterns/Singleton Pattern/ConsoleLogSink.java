@@ -0,0 +1,26 @@
+import java.io.PrintStream;
+
+/**
+ * Log sink that writes to a PrintStream, System.out by default
+ */
+public class ConsoleLogSink implements LogSink {
+    private final PrintStream out;
+
+    public ConsoleLogSink() {
+        this(System.out);
+    }
+
+    public ConsoleLogSink(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void write(CharSequence lines) {
+        out.append(lines);
+    }
+
+    @Override
+    public void flush() {
+        out.flush();
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * Severity of a log message, from least to most severe
+ */
+public enum Level {
+    TRACE,
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR
+}
@@ -0,0 +1,119 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Pre-allocated, lock-free ring buffer of log messages with many producers and
+ * a single consumer.
+ * <p>
+ * A producer claims the next sequence number with one atomic increment, copies
+ * its message into the slot's reusable StringBuilder and then publishes the
+ * slot by writing the sequence number into it with a volatile write, which a
+ * consumer about to park cannot miss (see {@link #hasPublished()}). The
+ * consumer reads slots in sequence order and stops at the first one that is not
+ * published yet. Nothing is allocated per message. When the buffer is full, producers spin and then
+ * yield until the consumer frees a slot, so no message is ever dropped.
+ */
+class LogRingBuffer {
+    // Slot builders that grew past this size are replaced after draining, so one
+    // huge message does not pin memory for the life of the buffer
+    private static final int MAX_RETAINED_MESSAGE = 4096;
+
+    private final StringBuilder[] messages;
+    // Sequence number stored in each slot once its message is visible; -1 if never used
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong nextClaim = new AtomicLong();
+    // Every sequence below this one has been consumed and its slot may be reused
+    private volatile long consumed;
+
+    /**
+     * @param capacity Number of slots; rounded up to a power of two
+     */
+    LogRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        size = Math.max(size, 1);
+        messages = new StringBuilder[size];
+        published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            messages[i] = new StringBuilder(64);
+            published.set(i, -1);
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Adds a message; safe to call from any number of threads. The text is copied,
+     * so the caller may reuse its buffer as soon as this returns.
+     *
+     * @param message The message to queue
+     */
+    void publish(CharSequence message) {
+        long sequence = nextClaim.getAndIncrement();
+        for (int spins = 0; sequence - consumed >= messages.length; spins++) {
+            // Give the consumer a chance to run when there are fewer cores than threads
+            if (spins < 100) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+        int slot = (int) sequence & mask;
+        StringBuilder text = messages[slot];
+        text.setLength(0);
+        text.append(message);
+        published.set(slot, sequence);
+    }
+
+    /**
+     * Takes published messages in order and appends each to the text as one
+     * newline-terminated line; must only be called by the consumer thread
+     *
+     * @param lines Receives the messages
+     * @param max   Maximum number of messages to take
+     * @return Number of messages taken
+     */
+    int drainTo(StringBuilder lines, int max) {
+        long sequence = consumed;
+        int count = 0;
+        while (count < max) {
+            int slot = (int) sequence & mask;
+            if (published.get(slot) != sequence) {
+                break;
+            }
+            StringBuilder text = messages[slot];
+            lines.append(text).append('\n');
+            if (text.capacity() > MAX_RETAINED_MESSAGE) {
+                messages[slot] = new StringBuilder(64);
+            }
+            count++;
+            sequence++;
+        }
+        if (count > 0) {
+            consumed = sequence;
+        }
+        return count;
+    }
+
+    /**
+     * @return true if the next message in sequence is ready to be drained; must
+     *         only be called by the consumer thread
+     */
+    boolean hasPublished() {
+        long sequence = consumed;
+        return published.get((int) sequence & mask) == sequence;
+    }
+
+    /**
+     * @return true if every claimed message has been consumed
+     */
+    boolean isEmpty() {
+        return consumed == nextClaim.get();
+    }
+
+    int capacity() {
+        return messages.length;
+    }
+}
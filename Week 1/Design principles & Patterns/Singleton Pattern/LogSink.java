@@ -0,0 +1,17 @@
+/**
+ * Destination for formatted log text. Implementations receive whole batches of
+ * lines at once and are only ever called from one thread at a time.
+ */
+public interface LogSink {
+    /**
+     * Writes a batch of complete, newline-terminated log lines
+     *
+     * @param lines The text to write
+     */
+    void write(CharSequence lines);
+
+    /**
+     * Pushes any buffered text to its final destination
+     */
+    void flush();
+}
@@ -0,0 +1,91 @@
+import java.util.function.IntSupplier;
+
+/**
+ * Micro-benchmark harness for Logger.getInstance(). It has no external
+ * dependencies, so it runs the same way as the rest of this module:
+ *
+ * <pre>
+ * javac *.java
+ * java LoggerBenchmark [threads] [warmupMs] [measureMs]
+ * java LoggerBenchmark 1,4 1000 2000
+ * </pre>
+ *
+ * getInstance() is measured next to a plain static field read, a volatile read
+ * (the fast path of double-checked locking) and a synchronized accessor. Each
+ * benchmark runs on the given numbers of threads at once and reports total
+ * throughput and average latency per call.
+ */
+public class LoggerBenchmark {
+    private static final int BATCH = 1024;
+
+    private static Logger plainField;
+    private static volatile Logger volatileField;
+    private static Logger lockedField;
+
+    // Written by every benchmark so the JIT cannot drop the work
+    static volatile int sink;
+
+    public static void main(String[] args) throws InterruptedException {
+        String threadCounts = args.length > 0 ? args[0] : "1," + Runtime.getRuntime().availableProcessors();
+        long warmupMs = args.length > 1 ? Long.parseLong(args[1]) : 500;
+        long measureMs = args.length > 2 ? Long.parseLong(args[2]) : 1000;
+
+        plainField = Logger.getInstance();
+        volatileField = plainField;
+        lockedField = plainField;
+
+        System.out.printf("%-24s %8s %16s %10s%n", "Benchmark", "Threads", "ops/s", "ns/op");
+        for (String count : threadCounts.split(",")) {
+            int threads = Integer.parseInt(count.trim());
+            measure("getInstance", threads, warmupMs, measureMs, () -> Logger.getInstance().hashCode());
+            measure("plain static field", threads, warmupMs, measureMs, () -> plainField.hashCode());
+            measure("volatile static field", threads, warmupMs, measureMs, () -> volatileField.hashCode());
+            measure("synchronized accessor", threads, warmupMs, measureMs, () -> locked().hashCode());
+        }
+    }
+
+    private static synchronized Logger locked() {
+        return lockedField;
+    }
+
+    private static void measure(String label, int threads, long warmupMs, long measureMs, IntSupplier op)
+            throws InterruptedException {
+        run(threads, warmupMs, op);
+        long start = System.nanoTime();
+        long ops = run(threads, measureMs, op);
+        long elapsed = System.nanoTime() - start;
+        // Latency is per call on one thread, so it is comparable across thread counts
+        System.out.printf("%-24s %8d %16.1f %10.2f%n", label, threads, ops * 1e9 / elapsed,
+                (double) elapsed * threads / ops);
+    }
+
+    // Runs the operation on every thread until the time budget is used up and
+    // returns the total number of calls
+    private static long run(int threads, long budgetMs, IntSupplier op) throws InterruptedException {
+        long deadline = System.nanoTime() + budgetMs * 1_000_000L;
+        long[] ops = new long[threads];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int slot = t;
+            workers[t] = new Thread(() -> {
+                long count = 0;
+                int result = 0;
+                do {
+                    for (int i = 0; i < BATCH; i++) {
+                        result += op.getAsInt();
+                    }
+                    count += BATCH;
+                } while (System.nanoTime() < deadline);
+                sink = result;
+                ops[slot] = count;
+            });
+            workers[t].start();
+        }
+        long total = 0;
+        for (int t = 0; t < threads; t++) {
+            workers[t].join();
+            total += ops[t];
+        }
+        return total;
+    }
+}
@@ -0,0 +1,86 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Multi-threaded check that Logger.getInstance() creates exactly one instance
+ * when many threads race on the very first call:
+ *
+ * <pre>
+ * javac *.java
+ * java LoggerStressCheck [rounds] [threads]
+ * java LoggerStressCheck 1000 16
+ * </pre>
+ *
+ * A class is only initialized once per JVM, so every round loads a fresh copy of
+ * Logger through its own class loader. All threads are then released at the same
+ * moment to make the first call together, and every one of them must get back
+ * the same object. Exits with status 1 on the first failing round.
+ */
+public class LoggerStressCheck {
+    public static void main(String[] args) throws Exception {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        URL classes = LoggerStressCheck.class.getProtectionDomain().getCodeSource().getLocation();
+
+        // Each fresh Logger prints "Logger instance created"; keep only our own output
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            for (int round = 0; round < rounds; round++) {
+                int distinct = race(classes, threads);
+                if (distinct != 1) {
+                    out.println("Round " + round + ": " + distinct + " distinct Logger instances");
+                    System.exit(1);
+                }
+            }
+        } finally {
+            System.setOut(out);
+        }
+        System.out.println(rounds + " rounds with " + threads + " threads: always exactly one Logger instance");
+    }
+
+    // Runs one first-call race and returns the number of distinct instances seen
+    private static int race(URL classes, int threads) throws Exception {
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { classes }, ClassLoader.getPlatformClassLoader())) {
+            Method getInstance = loader.loadClass("Logger").getMethod("getInstance");
+            getInstance.setAccessible(true);
+            Object[] seen = new Object[threads];
+            CountDownLatch ready = new CountDownLatch(threads);
+            CountDownLatch go = new CountDownLatch(1);
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                int slot = t;
+                workers[t] = new Thread(() -> {
+                    ready.countDown();
+                    try {
+                        go.await();
+                        seen[slot] = getInstance.invoke(null);
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+                workers[t].start();
+            }
+            ready.await();
+            go.countDown();
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            int distinct = 0;
+            for (int t = 0; t < threads; t++) {
+                boolean isNew = seen[t] != null;
+                for (int u = 0; u < t && isNew; u++) {
+                    isNew = seen[u] != seen[t];
+                }
+                if (isNew) {
+                    distinct++;
+                }
+            }
+            return distinct;
+        }
+    }
+}
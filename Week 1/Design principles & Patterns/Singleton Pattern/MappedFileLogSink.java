@@ -0,0 +1,343 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Log sink that writes UTF-8 text into memory-mapped, fixed-size segment files
+ * named base-000001.log, base-000002.log and so on. Writing a batch only copies
+ * bytes into the mapping, so there is no system call per message; the operating
+ * system writes the pages back in the background.
+ *
+ * <p>
+ * Written bytes are forced to disk only when the size or time policy says so,
+ * checked on every write and flush. A line never straddles two segments unless
+ * it is longer than a whole segment. A closed segment is truncated to the bytes
+ * written where the platform allows it; Windows refuses to truncate a file
+ * while it is still mapped, which lasts until the dropped buffer is garbage
+ * collected, so there the file keeps its zero padding and the text ends at the
+ * first zero byte.
+ *
+ * <p>
+ * The next segment is created and mapped on one background thread ahead of
+ * time, and full segments are forced and closed on another, so rolling over
+ * costs the writer thread no I/O unless it fills a segment before the next one
+ * is ready.
+ *
+ * <p>
+ * Like every {@link LogSink} it must only be used from one thread at a time,
+ * normally the asynchronous writer thread of the Logger.
+ */
+public class MappedFileLogSink implements LogSink, AutoCloseable {
+    // Longest UTF-8 encoding of one character (a surrogate pair); a smaller
+    // segment could never hold it and rolling over would not make progress
+    private static final int MIN_SEGMENT_SIZE = 4;
+
+    private final Path directory;
+    private final String baseName;
+    private final int segmentSize;
+    private final long flushBytes;
+    private final long flushIntervalNanos;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    // Creates the next segment off the writer thread; separate from the closer so
+    // a slow close never delays the segment the writer is waiting for
+    private final ExecutorService opener = daemonThread("log-segment-opener");
+    // Forces and closes full segments off the writer thread
+    private final ExecutorService closer = daemonThread("log-segment-closer");
+
+    private Segment current;
+    private Future<Segment> next;
+    private long unflushedBytes;
+    private long lastFlushNanos = System.nanoTime();
+
+    /**
+     * Opens a sink that starts a new segment after the highest-numbered one that
+     * already exists in the directory. If that one is blank, a prepared segment
+     * a previous sink could not delete, it is reused instead.
+     *
+     * @param directory       Where the segment files are written
+     * @param baseName        File name prefix, such as "app"
+     * @param segmentSize     Size of each segment file in bytes, at least 4
+     * @param flushBytes      Force to disk once this many bytes are unflushed
+     * @param flushIntervalMs Force to disk at least this often while there are
+     *                        unflushed bytes
+     * @throws IOException If the first segment cannot be created
+     */
+    public MappedFileLogSink(Path directory, String baseName, int segmentSize, long flushBytes, long flushIntervalMs)
+            throws IOException {
+        if (segmentSize < MIN_SEGMENT_SIZE) {
+            throw new IllegalArgumentException(
+                    "Segment size must be at least " + MIN_SEGMENT_SIZE + " bytes: " + segmentSize);
+        }
+        this.directory = directory;
+        this.baseName = baseName;
+        this.segmentSize = segmentSize;
+        this.flushBytes = flushBytes;
+        this.flushIntervalNanos = flushIntervalMs * 1_000_000L;
+        Files.createDirectories(directory);
+        int last = lastSegmentIndex();
+        if (last > 0 && isBlank(segmentPath(last))) {
+            Path path = segmentPath(last);
+            current = map(last, path, FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING));
+        } else {
+            current = openSegment(last + 1);
+        }
+        prepareNext();
+    }
+
+    @Override
+    public void write(CharSequence lines) {
+        CharBuffer chars = CharBuffer.wrap(lines);
+        int end = lines.length();
+        int start = 0;
+        while (start < end) {
+            int lineEnd = start;
+            while (lineEnd < end && lines.charAt(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            if (lineEnd < end) {
+                lineEnd++;
+            }
+            chars.limit(lineEnd).position(start);
+            writeLine(chars);
+            start = lineEnd;
+        }
+        flush();
+    }
+
+    /**
+     * Forces written bytes to disk if the size or time policy is due. The bytes
+     * are already visible to other processes reading the file either way.
+     */
+    @Override
+    public void flush() {
+        if (unflushedBytes > 0
+                && (unflushedBytes >= flushBytes || System.nanoTime() - lastFlushNanos >= flushIntervalNanos)) {
+            force();
+        }
+    }
+
+    /**
+     * @return The segment file currently being written
+     */
+    public Path currentSegment() {
+        return current.path;
+    }
+
+    /**
+     * Forces, truncates and closes the current segment, removes the prepared,
+     * unused one and waits until every full segment queued for closing is closed
+     */
+    @Override
+    public void close() throws IOException {
+        current.close();
+        opener.shutdown();
+        closer.shutdown();
+        try {
+            try {
+                Segment unused = next.get();
+                unused.close();
+                try {
+                    Files.delete(unused.path);
+                } catch (IOException e) {
+                    // Still mapped on Windows; the file is blank, and the next sink
+                    // opened on this directory reuses it
+                }
+            } catch (ExecutionException e) {
+                // The segment was never created, so there is nothing to remove
+            }
+            while (!closer.awaitTermination(1, TimeUnit.SECONDS)) {
+                // Still forcing and closing full segments
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLine(CharBuffer line) {
+        int start = line.position();
+        while (true) {
+            MappedByteBuffer buffer = current.buffer;
+            int mark = buffer.position();
+            encoder.reset();
+            CoderResult result = encoder.encode(line, buffer, true);
+            if (result.isUnderflow()) {
+                unflushedBytes += buffer.position() - mark;
+                return;
+            }
+            if (mark > 0) {
+                // The line does not fit: wipe the part written so far and move the
+                // whole line to the next segment
+                for (int i = mark; i < buffer.position(); i++) {
+                    buffer.put(i, (byte) 0);
+                }
+                buffer.position(mark);
+                line.position(start);
+            } else {
+                // Longer than a whole segment: keep what fit, continue in the next
+                unflushedBytes += buffer.position();
+                start = line.position();
+            }
+            roll();
+        }
+    }
+
+    private void roll() {
+        Segment full = current;
+        try {
+            current = next.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rolling over " + full.path, e);
+        } catch (ExecutionException e) {
+            throw new UncheckedIOException("Cannot create the segment after " + full.path,
+                    e.getCause() instanceof IOException io ? io : new IOException(e.getCause()));
+        }
+        prepareNext();
+        closer.execute(() -> {
+            try {
+                full.close();
+            } catch (IOException e) {
+                System.err.println("Cannot close log segment " + full.path + ": " + e);
+            }
+        });
+        // Closing forces the full segment, and the new one has nothing written yet
+        unflushedBytes = 0;
+        lastFlushNanos = System.nanoTime();
+    }
+
+    private void prepareNext() {
+        int index = current.index + 1;
+        next = opener.submit(() -> openSegment(index));
+    }
+
+    private void force() {
+        current.force();
+        unflushedBytes = 0;
+        lastFlushNanos = System.nanoTime();
+    }
+
+    // Creates and maps the first segment at or after the index that does not
+    // exist yet, so files written by anyone else are never overwritten
+    private Segment openSegment(int index) throws IOException {
+        while (true) {
+            Path path = segmentPath(index);
+            try {
+                return map(index, path, FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE));
+            } catch (FileAlreadyExistsException e) {
+                index++;
+            }
+        }
+    }
+
+    private Segment map(int index, Path path, FileChannel channel) throws IOException {
+        try {
+            // Mapping past the end grows the file to the full segment size
+            return new Segment(index, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("%s-%06d.log", baseName, index));
+    }
+
+    // Highest segment index in the directory, or 0 if there is none; gaps left by
+    // deleted segments do not matter
+    private int lastSegmentIndex() throws IOException {
+        String prefix = baseName + "-";
+        int last = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(prefix) && name.endsWith(".log")) {
+                    String digits = name.substring(prefix.length(), name.length() - ".log".length());
+                    if (!digits.isEmpty() && digits.length() <= 9 && digits.chars().allMatch(Character::isDigit)) {
+                        last = Math.max(last, Integer.parseInt(digits));
+                    }
+                }
+            }
+        }
+        return last;
+    }
+
+    // A segment is written from its first byte, so one that is empty or starts
+    // with a zero byte holds no messages
+    private static boolean isBlank(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer first = ByteBuffer.allocate(1);
+            return channel.read(first) <= 0 || first.get(0) == 0;
+        }
+    }
+
+    private static ExecutorService daemonThread(String name) {
+        return Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static final class Segment {
+        final int index;
+        final Path path;
+        final FileChannel channel;
+        // Dropped on close so the mapping can be garbage collected
+        MappedByteBuffer buffer;
+        // Bytes below this offset have already been forced to disk
+        int forced;
+
+        Segment(int index, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.index = index;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        void force() {
+            int written = buffer.position();
+            if (written > forced) {
+                buffer.force(forced, written - forced);
+                forced = written;
+            }
+        }
+
+        // Drops the mapping and, where the platform allows it, the zero padding
+        // after the last written byte
+        void close() throws IOException {
+            force();
+            int length = buffer.position();
+            buffer = null;
+            try {
+                channel.truncate(length);
+            } catch (IOException e) {
+                // Windows refuses while the file is still mapped, and the mapping
+                // lives until the buffer is garbage collected; keep the padding
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.example;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CalculatorBulkTests {
+
+    // Not a multiple of any vector length, so the scalar tail runs too
+    private static final int SIZE = 1003;
+
+    private Calculator calculator;
+    private Random random;
+
+    @Before
+    public void setUp() {
+        calculator = new Calculator();
+        random = new Random(42);
+    }
+
+    @Test
+    public void testIntOperations_MatchScalarMethods() {
+        int[] a = random.ints(SIZE).toArray();
+        int[] b = random.ints(SIZE).map(x -> x == 0 ? 1 : x).toArray();
+        int[] result = new int[SIZE];
+
+        calculator.add(a, b, result);
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(calculator.add(a[i], b[i]), result[i]);
+        }
+        calculator.subtract(a, b, result);
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(calculator.subtract(a[i], b[i]), result[i]);
+        }
+        calculator.multiply(a, b, result);
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(calculator.multiply(a[i], b[i]), result[i]);
+        }
+        calculator.divide(a, b, result);
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(calculator.divide(a[i], b[i]), result[i]);
+        }
+    }
+
+    @Test
+    public void testLongOperations_MatchScalarOperators() {
+        long[] a = random.longs(SIZE).toArray();
+        long[] b = random.longs(SIZE).map(x -> x == 0 ? 1 : x).toArray();
+        long[] result = new long[SIZE];
+
+        calculator.add(a, b, result);
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(a[i] + b[i], result[i]);
+        }
+        calculator.subtract(a, b, result);
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(a[i] - b[i], result[i]);
+        }
+        calculator.multiply(a, b, result);
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(a[i] * b[i], result[i]);
+        }
+        calculator.divide(a, b, result);
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(a[i] / b[i], result[i]);
+        }
+    }
+
+    @Test
+    public void testDoubleOperations_MatchScalarOperators() {
+        double[] a = random.doubles(SIZE, -1e6, 1e6).toArray();
+        double[] b = random.doubles(SIZE, -1e6, 1e6).toArray();
+        double[] result = new double[SIZE];
+        double[] expected = new double[SIZE];
+
+        calculator.add(a, b, result);
+        for (int i = 0; i < SIZE; i++) {
+            expected[i] = a[i] + b[i];
+        }
+        assertArrayEquals(expected, result, 0.0);
+        calculator.subtract(a, b, result);
+        for (int i = 0; i < SIZE; i++) {
+            expected[i] = a[i] - b[i];
+        }
+        assertArrayEquals(expected, result, 0.0);
+        calculator.multiply(a, b, result);
+        for (int i = 0; i < SIZE; i++) {
+            expected[i] = a[i] * b[i];
+        }
+        assertArrayEquals(expected, result, 0.0);
+        calculator.divide(a, b, result);
+        for (int i = 0; i < SIZE; i++) {
+            expected[i] = a[i] / b[i];
+        }
+        assertArrayEquals(expected, result, 0.0);
+    }
+
+    @Test
+    public void testAdd_ResultMayBeAnOperand() {
+        int[] a = { 1, 2, 3 };
+        int[] b = { 10, 20, 30 };
+
+        calculator.add(a, b, a);
+        assertArrayEquals(new int[] { 11, 22, 33 }, a);
+    }
+
+    @Test
+    public void testExactOperations_MatchWhenNothingOverflows() {
+        int[] a = random.ints(SIZE, -40000, 40000).toArray();
+        int[] b = random.ints(SIZE, -40000, 40000).map(x -> x == 0 ? 1 : x).toArray();
+        int[] result = new int[SIZE];
+        int[] expected = new int[SIZE];
+
+        calculator.addExact(a, b, result);
+        calculator.add(a, b, expected);
+        assertArrayEquals(expected, result);
+        calculator.subtractExact(a, b, result);
+        calculator.subtract(a, b, expected);
+        assertArrayEquals(expected, result);
+        calculator.multiplyExact(a, b, result);
+        calculator.multiply(a, b, expected);
+        assertArrayEquals(expected, result);
+        calculator.divideExact(a, b, result);
+        calculator.divide(a, b, expected);
+        assertArrayEquals(expected, result);
+
+        long[] la = random.longs(SIZE, -3_000_000_000L, 3_000_000_000L).toArray();
+        long[] lb = random.longs(SIZE, -3_000_000_000L, 3_000_000_000L).toArray();
+        long[] lresult = new long[SIZE];
+        long[] lexpected = new long[SIZE];
+        calculator.multiplyExact(la, lb, lresult);
+        calculator.multiply(la, lb, lexpected);
+        assertArrayEquals(lexpected, lresult);
+    }
+
+    @Test
+    public void testExactOperations_OverflowAnywhereThrows() {
+        // Checks elements in the low and high half of a vector, one in the middle
+        // of the vector loop and the last one, which the scalar tail handles
+        for (int index : new int[] { 0, 13, SIZE / 2, SIZE - 1 }) {
+            int[] a = new int[SIZE];
+            int[] b = new int[SIZE];
+            a[index] = Integer.MAX_VALUE;
+            b[index] = 2;
+            assertOverflows(() -> calculator.addExact(a, b, new int[SIZE]));
+            assertOverflows(() -> calculator.multiplyExact(a, b, new int[SIZE]));
+            b[index] = -2;
+            assertOverflows(() -> calculator.subtractExact(a, b, new int[SIZE]));
+            // Every divisor is non-zero, so only MIN_VALUE / -1 can fail
+            Arrays.fill(b, 1);
+            a[index] = Integer.MIN_VALUE;
+            b[index] = -1;
+            assertOverflows(() -> calculator.divideExact(a, b, new int[SIZE]));
+
+            long[] la = new long[SIZE];
+            long[] lb = new long[SIZE];
+            la[index] = Long.MAX_VALUE;
+            lb[index] = 2;
+            assertOverflows(() -> calculator.addExact(la, lb, new long[SIZE]));
+            assertOverflows(() -> calculator.multiplyExact(la, lb, new long[SIZE]));
+            lb[index] = -2;
+            assertOverflows(() -> calculator.subtractExact(la, lb, new long[SIZE]));
+        }
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testDivide_ByZeroThrows() {
+        calculator.divide(new int[] { 1, 2 }, new int[] { 1, 0 }, new int[2]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAdd_DifferentLengthsThrows() {
+        calculator.add(new int[3], new int[2], new int[3]);
+    }
+
+    private static void assertOverflows(Runnable operation) {
+        try {
+            operation.run();
+            fail("Expected ArithmeticException");
+        } catch (ArithmeticException expected) {
+            // Overflow detected
+        }
+    }
+}
@@ -2,6 +2,10 @@ package com.example;
 
 public class Calculator {
 
+    // The bulk methods use SIMD when the JVM was started with
+    // --add-modules jdk.incubator.vector, and plain loops otherwise
+    static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
     public int add(int a, int b) {
         return a + b;
     }
@@ -18,6 +22,326 @@ public class Calculator {
         return a / b;
     }
 
+    /**
+     * Adds the arrays element by element: result[i] = a[i] + b[i], wrapping
+     * around on overflow like the scalar operator
+     *
+     * @param a      Left operands
+     * @param b      Right operands, same length as a
+     * @param result Receives the results, same length as a; may be a or b
+     */
+    public void add(int[] a, int[] b, int[] result) {
+        checkLengths(a.length, b.length, result.length);
+        for (int i = VECTORIZED ? VectorKernels.add(a, b, result) : 0; i < a.length; i++) {
+            result[i] = a[i] + b[i];
+        }
+    }
+
+    /**
+     * Subtracts the arrays element by element: result[i] = a[i] - b[i], wrapping
+     * around on overflow like the scalar operator
+     *
+     * @param a      Left operands
+     * @param b      Right operands, same length as a
+     * @param result Receives the results, same length as a; may be a or b
+     */
+    public void subtract(int[] a, int[] b, int[] result) {
+        checkLengths(a.length, b.length, result.length);
+        for (int i = VECTORIZED ? VectorKernels.subtract(a, b, result) : 0; i < a.length; i++) {
+            result[i] = a[i] - b[i];
+        }
+    }
+
+    /**
+     * Multiplies the arrays element by element: result[i] = a[i] * b[i], wrapping
+     * around on overflow like the scalar operator
+     *
+     * @param a      Left operands
+     * @param b      Right operands, same length as a
+     * @param result Receives the results, same length as a; may be a or b
+     */
+    public void multiply(int[] a, int[] b, int[] result) {
+        checkLengths(a.length, b.length, result.length);
+        for (int i = VECTORIZED ? VectorKernels.multiply(a, b, result) : 0; i < a.length; i++) {
+            result[i] = a[i] * b[i];
+        }
+    }
+
+    /**
+     * Divides the arrays element by element: result[i] = a[i] / b[i]. Always a
+     * scalar loop, as common CPUs have no SIMD integer division.
+     *
+     * @param a      Left operands
+     * @param b      Right operands, same length as a
+     * @param result Receives the results, same length as a; may be a or b
+     * @throws ArithmeticException If an element of b is zero
+     */
+    public void divide(int[] a, int[] b, int[] result) {
+        checkLengths(a.length, b.length, result.length);
+        for (int i = 0; i < a.length; i++) {
+            result[i] = a[i] / b[i];
+        }
+    }
+
+    /**
+     * Adds the arrays element by element: result[i] = a[i] + b[i], wrapping
+     * around on overflow like the scalar operator
+     *
+     * @param a      Left operands
+     * @param b      Right operands, same length as a
+     * @param result Receives the results, same length as a; may be a or b
+     */
+    public void add(long[] a, long[] b, long[] result) {
+        checkLengths(a.length, b.length, result.length);
+        for (int i = VECTORIZED ? VectorKernels.add(a, b, result) : 0; i < a.length; i++) {
+            result[i] = a[i] + b[i];
+        }
+    }
+
+    /**
+     * Subtracts the arrays element by element: result[i] = a[i] - b[i], wrapping
+     * around on overflow like the scalar operator
+     *
+     * @param a      Left operands
+     * @param b      Right operands, same length as a
+     * @param result Receives the results, same length as a; may be a or b
+     */
+    public void subtract(long[] a, long[] b, long[] result) {
+        checkLengths(a.length, b.length, result.length);
+        for (int i = VECTORIZED ? VectorKernels.subtract(a, b, result) : 0; i < a.length; i++) {
+            result[i] = a[i] - b[i];
+        }
+    }
+
+    /**
+     * Multiplies the arrays element by element: result[i] = a[i] * b[i], wrapping
+     * around on overflow like the scalar operator
+     *
+     * @param a      Left operands
+     * @param b      Right operands, same length as a
+     * @param result Receives the results, same length as a; may be a or b
+     */
+    public void multiply(long[] a, long[] b, long[] result) {
+        checkLengths(a.length, b.length, result.length);
+        for (int i = VECTORIZED ? VectorKernels.multiply(a, b, result) : 0; i < a.length; i++) {
+            result[i] = a[i] * b[i];
+        }
+    }
+
+    /**
+     * Divides the arrays element by element: result[i] = a[i] / b[i]. Always a
+     * scalar loop, as common CPUs have no SIMD integer division.
+     *
+     * @param a      Left operands
+     * @param b      Right operands, same length as a
+     * @param result Receives the results, same length as a; may be a or b
+     * @throws ArithmeticException If an element of b is zero
+     */
+    public void divide(long[] a, long[] b, long[] result) {
+        checkLengths(a.length, b.length, result.length);
+        for (int i = 0; i < a.length; i++) {
+            result[i] = a[i] / b[i];
+        }
+    }
+
+    /**
+     * Adds the arrays element by element: result[i] = a[i] + b[i]
+     *
+     * @param a      Left operands
+     * @param b      Right operands, same length as a
+     * @param result Receives the results, same length as a; may be a or b
+     */
+    public void add(double[] a, double[] b, double[] result) {
+        checkLengths(a.length, b.length, result.length);
+        for (int i = VECTORIZED ? VectorKernels.add(a, b, result) : 0; i < a.length; i++) {
+            result[i] = a[i] + b[i];
+        }
+    }
+
+    /**
+     * Subtracts the arrays element by element: result[i] = a[i] - b[i]
+     *
+     * @param a      Left operands
+     * @param b      Right operands, same length as a
+     * @param result Receives the results, same length as a; may be a or b
+     */
+    public void subtract(double[] a, double[] b, double[] result) {
+        checkLengths(a.length, b.length, result.length);
+        for (int i = VECTORIZED ? VectorKernels.subtract(a, b, result) : 0; i < a.length; i++) {
+            result[i] = a[i] - b[i];
+        }
+    }
+
+    /**
+     * Multiplies the arrays element by element: result[i] = a[i] * b[i]
+     *
+     * @param a      Left operands
+     * @param b      Right operands, same length as a
+     * @param result Receives the results, same length as a; may be a or b
+     */
+    public void multiply(double[] a, double[] b, double[] result) {
+        checkLengths(a.length, b.length, result.length);
+        for (int i = VECTORIZED ? VectorKernels.multiply(a, b, result) : 0; i < a.length; i++) {
+            result[i] = a[i] * b[i];
+        }
+    }
+
+    /**
+     * Divides the arrays element by element: result[i] = a[i] / b[i]
+     *
+     * @param a      Left operands
+     * @param b      Right operands, same length as a
+     * @param result Receives the results, same length as a; may be a or b
+     */
+    public void divide(double[] a, double[] b, double[] result) {
+        checkLengths(a.length, b.length, result.length);
+        for (int i = VECTORIZED ? VectorKernels.divide(a, b, result) : 0; i < a.length; i++) {
+            result[i] = a[i] / b[i];
+        }
+    }
+
+    /**
+     * Adds the arrays element by element like
+     * {@link #add(int[], int[], int[])}, but fails instead of wrapping around on
+     * overflow. When it fails, result may already hold some of the results.
+     *
+     * @param a      Left operands
+     * @param b      Right operands, same length as a
+     * @param result Receives the results, same length as a; may be a or b
+     * @throws ArithmeticException If any result overflows
+     */
+    public void addExact(int[] a, int[] b, int[] result) {
+        checkLengths(a.length, b.length, result.length);
+        for (int i = VECTORIZED ? VectorKernels.addExact(a, b, result) : 0; i < a.length; i++) {
+            result[i] = Math.addExact(a[i], b[i]);
+        }
+    }
+
+    /**
+     * Subtracts the arrays element by element like
+     * {@link #subtract(int[], int[], int[])}, but fails instead of wrapping around on
+     * overflow. When it fails, result may already hold some of the results.
+     *
+     * @param a      Left operands
+     * @param b      Right operands, same length as a
+     * @param result Receives the results, same length as a; may be a or b
+     * @throws ArithmeticException If any result overflows
+     */
+    public void subtractExact(int[] a, int[] b, int[] result) {
+        checkLengths(a.length, b.length, result.length);
+        for (int i = VECTORIZED ? VectorKernels.subtractExact(a, b, result) : 0; i < a.length; i++) {
+            result[i] = Math.subtractExact(a[i], b[i]);
+        }
+    }
+
+    /**
+     * Multiplies the arrays element by element like
+     * {@link #multiply(int[], int[], int[])}, but fails instead of wrapping around on
+     * overflow. When it fails, result may already hold some of the results.
+     *
+     * @param a      Left operands
+     * @param b      Right operands, same length as a
+     * @param result Receives the results, same length as a; may be a or b
+     * @throws ArithmeticException If any result overflows
+     */
+    public void multiplyExact(int[] a, int[] b, int[] result) {
+        checkLengths(a.length, b.length, result.length);
+        for (int i = VECTORIZED ? VectorKernels.multiplyExact(a, b, result) : 0; i < a.length; i++) {
+            result[i] = Math.multiplyExact(a[i], b[i]);
+        }
+    }
+
+    /**
+     * Divides the arrays element by element like
+     * {@link #divide(int[], int[], int[])}, but fails instead of wrapping around on
+     * overflow. When it fails, result may already hold some of the results.
+     *
+     * @param a      Left operands
+     * @param b      Right operands, same length as a
+     * @param result Receives the results, same length as a; may be a or b
+     * @throws ArithmeticException If any result overflows or an element of b is zero
+     */
+    public void divideExact(int[] a, int[] b, int[] result) {
+        checkLengths(a.length, b.length, result.length);
+        for (int i = 0; i < a.length; i++) {
+            result[i] = Math.divideExact(a[i], b[i]);
+        }
+    }
+
+    /**
+     * Adds the arrays element by element like
+     * {@link #add(long[], long[], long[])}, but fails instead of wrapping around on
+     * overflow. When it fails, result may already hold some of the results.
+     *
+     * @param a      Left operands
+     * @param b      Right operands, same length as a
+     * @param result Receives the results, same length as a; may be a or b
+     * @throws ArithmeticException If any result overflows
+     */
+    public void addExact(long[] a, long[] b, long[] result) {
+        checkLengths(a.length, b.length, result.length);
+        for (int i = VECTORIZED ? VectorKernels.addExact(a, b, result) : 0; i < a.length; i++) {
+            result[i] = Math.addExact(a[i], b[i]);
+        }
+    }
+
+    /**
+     * Subtracts the arrays element by element like
+     * {@link #subtract(long[], long[], long[])}, but fails instead of wrapping around on
+     * overflow. When it fails, result may already hold some of the results.
+     *
+     * @param a      Left operands
+     * @param b      Right operands, same length as a
+     * @param result Receives the results, same length as a; may be a or b
+     * @throws ArithmeticException If any result overflows
+     */
+    public void subtractExact(long[] a, long[] b, long[] result) {
+        checkLengths(a.length, b.length, result.length);
+        for (int i = VECTORIZED ? VectorKernels.subtractExact(a, b, result) : 0; i < a.length; i++) {
+            result[i] = Math.subtractExact(a[i], b[i]);
+        }
+    }
+
+    /**
+     * Multiplies the arrays element by element like
+     * {@link #multiply(long[], long[], long[])}, but fails instead of wrapping around on
+     * overflow. When it fails, result may already hold some of the results.
+     *
+     * @param a      Left operands
+     * @param b      Right operands, same length as a
+     * @param result Receives the results, same length as a; may be a or b
+     * @throws ArithmeticException If any result overflows
+     */
+    public void multiplyExact(long[] a, long[] b, long[] result) {
+        checkLengths(a.length, b.length, result.length);
+        for (int i = VECTORIZED ? VectorKernels.multiplyExact(a, b, result) : 0; i < a.length; i++) {
+            result[i] = Math.multiplyExact(a[i], b[i]);
+        }
+    }
+
+    /**
+     * Divides the arrays element by element like
+     * {@link #divide(long[], long[], long[])}, but fails instead of wrapping around on
+     * overflow. When it fails, result may already hold some of the results.
+     *
+     * @param a      Left operands
+     * @param b      Right operands, same length as a
+     * @param result Receives the results, same length as a; may be a or b
+     * @throws ArithmeticException If any result overflows or an element of b is zero
+     */
+    public void divideExact(long[] a, long[] b, long[] result) {
+        checkLengths(a.length, b.length, result.length);
+        for (int i = 0; i < a.length; i++) {
+            result[i] = Math.divideExact(a[i], b[i]);
+        }
+    }
+
+    private static void checkLengths(int a, int b, int result) {
+        if (a != b || a != result) {
+            throw new IllegalArgumentException("Array lengths differ: " + a + ", " + b + ", " + result);
+        }
+    }
+
     public Object getNull() {
         return null;
     }
@@ -0,0 +1,214 @@
+package com.example;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD loops behind the bulk methods of {@link Calculator}. Each method covers
+ * the largest prefix of the arrays that fills whole vectors and returns its
+ * length; Calculator finishes the remaining elements with a scalar loop.
+ *
+ * Only loaded when the jdk.incubator.vector module is present (run with
+ * --add-modules jdk.incubator.vector); see {@link Calculator#VECTORIZED}.
+ */
+final class VectorKernels {
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorKernels() {
+    }
+
+    static int add(int[] a, int[] b, int[] result) {
+        int upper = INTS.loopBound(a.length);
+        for (int i = 0; i < upper; i += INTS.length()) {
+            IntVector.fromArray(INTS, a, i).add(IntVector.fromArray(INTS, b, i)).intoArray(result, i);
+        }
+        return upper;
+    }
+
+    static int subtract(int[] a, int[] b, int[] result) {
+        int upper = INTS.loopBound(a.length);
+        for (int i = 0; i < upper; i += INTS.length()) {
+            IntVector.fromArray(INTS, a, i).sub(IntVector.fromArray(INTS, b, i)).intoArray(result, i);
+        }
+        return upper;
+    }
+
+    static int multiply(int[] a, int[] b, int[] result) {
+        int upper = INTS.loopBound(a.length);
+        for (int i = 0; i < upper; i += INTS.length()) {
+            IntVector.fromArray(INTS, a, i).mul(IntVector.fromArray(INTS, b, i)).intoArray(result, i);
+        }
+        return upper;
+    }
+
+    static int add(long[] a, long[] b, long[] result) {
+        int upper = LONGS.loopBound(a.length);
+        for (int i = 0; i < upper; i += LONGS.length()) {
+            LongVector.fromArray(LONGS, a, i).add(LongVector.fromArray(LONGS, b, i)).intoArray(result, i);
+        }
+        return upper;
+    }
+
+    static int subtract(long[] a, long[] b, long[] result) {
+        int upper = LONGS.loopBound(a.length);
+        for (int i = 0; i < upper; i += LONGS.length()) {
+            LongVector.fromArray(LONGS, a, i).sub(LongVector.fromArray(LONGS, b, i)).intoArray(result, i);
+        }
+        return upper;
+    }
+
+    static int multiply(long[] a, long[] b, long[] result) {
+        int upper = LONGS.loopBound(a.length);
+        for (int i = 0; i < upper; i += LONGS.length()) {
+            LongVector.fromArray(LONGS, a, i).mul(LongVector.fromArray(LONGS, b, i)).intoArray(result, i);
+        }
+        return upper;
+    }
+
+    static int add(double[] a, double[] b, double[] result) {
+        int upper = DOUBLES.loopBound(a.length);
+        for (int i = 0; i < upper; i += DOUBLES.length()) {
+            DoubleVector.fromArray(DOUBLES, a, i).add(DoubleVector.fromArray(DOUBLES, b, i)).intoArray(result, i);
+        }
+        return upper;
+    }
+
+    static int subtract(double[] a, double[] b, double[] result) {
+        int upper = DOUBLES.loopBound(a.length);
+        for (int i = 0; i < upper; i += DOUBLES.length()) {
+            DoubleVector.fromArray(DOUBLES, a, i).sub(DoubleVector.fromArray(DOUBLES, b, i)).intoArray(result, i);
+        }
+        return upper;
+    }
+
+    static int multiply(double[] a, double[] b, double[] result) {
+        int upper = DOUBLES.loopBound(a.length);
+        for (int i = 0; i < upper; i += DOUBLES.length()) {
+            DoubleVector.fromArray(DOUBLES, a, i).mul(DoubleVector.fromArray(DOUBLES, b, i)).intoArray(result, i);
+        }
+        return upper;
+    }
+
+    static int divide(double[] a, double[] b, double[] result) {
+        int upper = DOUBLES.loopBound(a.length);
+        for (int i = 0; i < upper; i += DOUBLES.length()) {
+            DoubleVector.fromArray(DOUBLES, a, i).div(DoubleVector.fromArray(DOUBLES, b, i)).intoArray(result, i);
+        }
+        return upper;
+    }
+
+    // The checked variants detect overflow with the sign-bit tests used by
+    // Math.addExact and friends, one whole vector at a time
+
+    static int addExact(int[] a, int[] b, int[] result) {
+        int upper = INTS.loopBound(a.length);
+        for (int i = 0; i < upper; i += INTS.length()) {
+            IntVector x = IntVector.fromArray(INTS, a, i);
+            IntVector y = IntVector.fromArray(INTS, b, i);
+            IntVector sum = x.add(y);
+            // Overflow iff both operands have the opposite sign of the result
+            checkInt(x.lanewise(VectorOperators.XOR, sum).and(y.lanewise(VectorOperators.XOR, sum)).lt(0));
+            sum.intoArray(result, i);
+        }
+        return upper;
+    }
+
+    static int subtractExact(int[] a, int[] b, int[] result) {
+        int upper = INTS.loopBound(a.length);
+        for (int i = 0; i < upper; i += INTS.length()) {
+            IntVector x = IntVector.fromArray(INTS, a, i);
+            IntVector y = IntVector.fromArray(INTS, b, i);
+            IntVector difference = x.sub(y);
+            // Overflow iff the operands have different signs and the result's
+            // sign differs from the first operand's
+            checkInt(x.lanewise(VectorOperators.XOR, y).and(x.lanewise(VectorOperators.XOR, difference)).lt(0));
+            difference.intoArray(result, i);
+        }
+        return upper;
+    }
+
+    static int multiplyExact(int[] a, int[] b, int[] result) {
+        int upper = INTS.loopBound(a.length);
+        for (int i = 0; i < upper; i += INTS.length()) {
+            IntVector x = IntVector.fromArray(INTS, a, i);
+            IntVector y = IntVector.fromArray(INTS, b, i);
+            IntVector product = x.mul(y);
+            // The high half of the 64-bit product must be the sign extension of the
+            // low half; work it out per half of the lanes in long vectors
+            for (int part = 0; part < 2; part++) {
+                LongVector wide = ((LongVector) x.convertShape(VectorOperators.I2L, LONGS, part))
+                        .mul((LongVector) y.convertShape(VectorOperators.I2L, LONGS, part));
+                VectorMask<Long> overflow = wide.compare(VectorOperators.LT, Integer.MIN_VALUE)
+                        .or(wide.compare(VectorOperators.GT, Integer.MAX_VALUE));
+                if (overflow.anyTrue()) {
+                    throw new ArithmeticException("integer overflow");
+                }
+            }
+            product.intoArray(result, i);
+        }
+        return upper;
+    }
+
+    static int addExact(long[] a, long[] b, long[] result) {
+        int upper = LONGS.loopBound(a.length);
+        for (int i = 0; i < upper; i += LONGS.length()) {
+            LongVector x = LongVector.fromArray(LONGS, a, i);
+            LongVector y = LongVector.fromArray(LONGS, b, i);
+            LongVector sum = x.add(y);
+            checkLong(x.lanewise(VectorOperators.XOR, sum).and(y.lanewise(VectorOperators.XOR, sum)).lt(0));
+            sum.intoArray(result, i);
+        }
+        return upper;
+    }
+
+    static int subtractExact(long[] a, long[] b, long[] result) {
+        int upper = LONGS.loopBound(a.length);
+        for (int i = 0; i < upper; i += LONGS.length()) {
+            LongVector x = LongVector.fromArray(LONGS, a, i);
+            LongVector y = LongVector.fromArray(LONGS, b, i);
+            LongVector difference = x.sub(y);
+            checkLong(x.lanewise(VectorOperators.XOR, y).and(x.lanewise(VectorOperators.XOR, difference)).lt(0));
+            difference.intoArray(result, i);
+        }
+        return upper;
+    }
+
+    static int multiplyExact(long[] a, long[] b, long[] result) {
+        int upper = LONGS.loopBound(a.length);
+        for (int i = 0; i < upper; i += LONGS.length()) {
+            LongVector x = LongVector.fromArray(LONGS, a, i);
+            LongVector y = LongVector.fromArray(LONGS, b, i);
+            // Operands that both fit in 31 bits cannot overflow, which is the
+            // common case; otherwise check this vector's lanes one by one
+            LongVector magnitudes = x.abs().or(y.abs());
+            if (magnitudes.compare(VectorOperators.UNSIGNED_GT, Integer.MAX_VALUE).anyTrue()) {
+                for (int lane = i; lane < i + LONGS.length(); lane++) {
+                    result[lane] = Math.multiplyExact(a[lane], b[lane]);
+                }
+            } else {
+                x.mul(y).intoArray(result, i);
+            }
+        }
+        return upper;
+    }
+
+    // Same exception and message as Math.addExact(int, int)
+    private static void checkInt(VectorMask<Integer> overflow) {
+        if (overflow.anyTrue()) {
+            throw new ArithmeticException("integer overflow");
+        }
+    }
+
+    // Same exception and message as Math.addExact(long, long)
+    private static void checkLong(VectorMask<Long> overflow) {
+        if (overflow.anyTrue()) {
+            throw new ArithmeticException("long overflow");
+        }
+    }
+}
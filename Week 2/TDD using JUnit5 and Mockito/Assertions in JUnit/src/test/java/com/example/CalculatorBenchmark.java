@@ -0,0 +1,122 @@
+package com.example;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the bulk array methods of Calculator with calling the scalar methods
+ * in a loop. Run with: mvn -P benchmark test-compile exec:exec
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class CalculatorBenchmark {
+
+    @Param({ "1000", "1000000" })
+    private int size;
+
+    private final Calculator calculator = new Calculator();
+    private int[] a;
+    private int[] b;
+    private int[] result;
+    private double[] x;
+    private double[] y;
+    private double[] doubleResult;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        // Small operands, so the checked variants never overflow
+        a = random.ints(size, -40000, 40000).toArray();
+        b = random.ints(size, -40000, 40000).toArray();
+        result = new int[size];
+        x = random.doubles(size).toArray();
+        y = random.doubles(size).toArray();
+        doubleResult = new double[size];
+    }
+
+    @Benchmark
+    public int[] addScalarLoop() {
+        for (int i = 0; i < size; i++) {
+            result[i] = calculator.add(a[i], b[i]);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int[] addBulk() {
+        calculator.add(a, b, result);
+        return result;
+    }
+
+    @Benchmark
+    public int[] addExactScalarLoop() {
+        for (int i = 0; i < size; i++) {
+            result[i] = Math.addExact(a[i], b[i]);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int[] addExactBulk() {
+        calculator.addExact(a, b, result);
+        return result;
+    }
+
+    @Benchmark
+    public int[] multiplyScalarLoop() {
+        for (int i = 0; i < size; i++) {
+            result[i] = calculator.multiply(a[i], b[i]);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int[] multiplyBulk() {
+        calculator.multiply(a, b, result);
+        return result;
+    }
+
+    @Benchmark
+    public int[] multiplyExactScalarLoop() {
+        for (int i = 0; i < size; i++) {
+            result[i] = Math.multiplyExact(a[i], b[i]);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int[] multiplyExactBulk() {
+        calculator.multiplyExact(a, b, result);
+        return result;
+    }
+
+    @Benchmark
+    public double[] multiplyDoubleScalarLoop() {
+        for (int i = 0; i < size; i++) {
+            doubleResult[i] = x[i] * y[i];
+        }
+        return doubleResult;
+    }
+
+    @Benchmark
+    public double[] multiplyDoubleBulk() {
+        calculator.multiply(x, y, doubleResult);
+        return doubleResult;
+    }
+}